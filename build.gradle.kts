@@ -2,6 +2,7 @@ plugins {
     java
     id("org.springframework.boot") version "3.5.3"
     id("io.spring.dependency-management") version "1.1.7"
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "com.nice1st"
@@ -21,9 +22,14 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-data-redis")
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
     implementation("com.h2database:h2")
     implementation("org.projectlombok:lombok")
     implementation("com.github.f4b6a3:tsid-creator:5.2.4")
+    implementation("org.roaringbitmap:RoaringBitmap:1.3.0")
+    implementation("com.github.ben-manes.caffeine:caffeine")
+    implementation("org.hdrhistogram:HdrHistogram:2.2.2")
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
 
     annotationProcessor("org.projectlombok:lombok")
     testImplementation("org.springframework.boot:spring-boot-starter-test")
@@ -32,3 +38,9 @@ dependencies {
 tasks.withType<Test> {
     useJUnitPlatform()
 }
+
+jmh {
+    warmupIterations = 2
+    iterations = 5
+    fork = 1
+}
@@ -0,0 +1,104 @@
+package com.nice1st.Hierarchy_Cache.cache;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import com.nice1st.Hierarchy_Cache.cache.local.InMemoryCacheService;
+import com.nice1st.Hierarchy_Cache.cache.redis.BenchmarkRedis;
+import com.nice1st.Hierarchy_Cache.cache.redis.RedisCacheService;
+import com.nice1st.Hierarchy_Cache.cache.redis.RedisSnapshotCacheService;
+
+// 캐시 계층 변경 전후 비교용. backend=redis, snapshot 은 localhost:6379 의 Redis 가 필요하다
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CacheServiceBenchmark {
+
+    private static final String TENANT_ID = "bench";
+
+    // initialize 는 조회/변경용 테넌트와 분리해 매번 같은 상태에서 적재한다
+    private static final String INITIALIZE_TENANT_ID = "bench-initialize";
+
+    private static final String MOVING_ID = "moving";
+
+    @Param({"memory", "redis", "snapshot"})
+    public String backend;
+
+    @Param({"WIDE", "DEEP", "BALANCED"})
+    public TreeShape shape;
+
+    private LettuceConnectionFactory connectionFactory;
+
+    private CacheService cacheService;
+
+    private TreeShape.Fixture fixture;
+
+    private boolean movedUp;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("redis".equals(backend)) {
+            connectionFactory = BenchmarkRedis.connect();
+            RedisCacheService redisCacheService = new RedisCacheService(BenchmarkRedis.redisTemplate(connectionFactory),
+              1_000);
+            redisCacheService.loadScripts();
+            cacheService = redisCacheService;
+        } else if ("snapshot".equals(backend)) {
+            connectionFactory = BenchmarkRedis.connect();
+            cacheService = new RedisSnapshotCacheService(BenchmarkRedis.redisTemplate(connectionFactory));
+        } else {
+            cacheService = new InMemoryCacheService();
+        }
+
+        fixture = shape.build();
+        cacheService.initialize(TENANT_ID, fixture.tree());
+        // 가장 깊은 곳과 루트 사이를 오가며 옮길 그룹
+        cacheService.createGroup(TENANT_ID, fixture.deepestId(), MOVING_ID);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+
+    // 재초기화는 커서 이동까지 한 단위, snapshot 백엔드는 이때 스냅샷을 쓴다
+    @Benchmark
+    public void initialize() {
+        cacheService.initialize(INITIALIZE_TENANT_ID, fixture.tree());
+        cacheService.updateCursor(INITIALIZE_TENANT_ID, 1L);
+    }
+
+    @Benchmark
+    public Set<String> getChildren() {
+        return cacheService.getChildren(TENANT_ID, TreeShape.ROOT_ID);
+    }
+
+    // 생성만 반복하면 집합이 계속 커지므로 삭제와 짝을 지어 측정한다
+    @Benchmark
+    public void createAndDeleteGroup() {
+        String id = UUID.randomUUID().toString();
+        cacheService.createGroup(TENANT_ID, fixture.deepestId(), id);
+        cacheService.deleteGroup(TENANT_ID, id);
+    }
+
+    @Benchmark
+    public void moveGroup() {
+        cacheService.moveGroup(TENANT_ID, movedUp ? fixture.deepestId() : TreeShape.ROOT_ID, MOVING_ID);
+        movedUp = !movedUp;
+    }
+}
@@ -0,0 +1,95 @@
+package com.nice1st.Hierarchy_Cache.cache;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.nice1st.Hierarchy_Cache.cache.local.InMemoryLockService;
+import com.nice1st.Hierarchy_Cache.cache.redis.BenchmarkRedis;
+import com.nice1st.Hierarchy_Cache.cache.redis.RedisLockService;
+
+// 8 개 스레드가 tenants 개의 락을 나눠 잡는다. tenants=1 이면 모두 한 락을 두고 경쟁
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(8)
+public class LockServiceBenchmark {
+
+    private static final Duration TTL = Duration.ofMinutes(1);
+
+    private static final Duration MAX_WAIT = Duration.ofSeconds(30);
+
+    @Param({"memory", "redis"})
+    public String backend;
+
+    @Param({"1", "8"})
+    public int tenants;
+
+    private LettuceConnectionFactory connectionFactory;
+
+    private RedisMessageListenerContainer listenerContainer;
+
+    private LockService lockService;
+
+    private String[] keys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("redis".equals(backend)) {
+            connectionFactory = BenchmarkRedis.connect();
+            RedisLockService redisLockService = new RedisLockService(BenchmarkRedis.redisTemplate(connectionFactory));
+
+            listenerContainer = new RedisMessageListenerContainer();
+            listenerContainer.setConnectionFactory(connectionFactory);
+            listenerContainer.addMessageListener(redisLockService, new ChannelTopic(RedisLockService.RELEASE_CHANNEL));
+            listenerContainer.afterPropertiesSet();
+            listenerContainer.start();
+            lockService = redisLockService;
+        } else {
+            lockService = new InMemoryLockService();
+        }
+
+        keys = new String[tenants];
+        for (int i = 0; i < tenants; i++) {
+            keys[i] = lockService.getLockKey("bench" + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (lockService instanceof RedisLockService redisLockService) {
+            redisLockService.close();
+        }
+        if (listenerContainer != null) {
+            listenerContainer.destroy();
+        }
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+
+    @Benchmark
+    public boolean tryLockAndUnlock() {
+        String key = keys[ThreadLocalRandom.current().nextInt(keys.length)];
+        boolean locked = lockService.tryLock(key, TTL, MAX_WAIT);
+        if (locked) {
+            lockService.unlock(key);
+        }
+        return locked;
+    }
+}
@@ -0,0 +1,70 @@
+package com.nice1st.Hierarchy_Cache.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 벤치마크용 트리 모양. 노드 수는 모양마다 Redis initialize 가 수 초 안에 끝나는 정도로 맞췄다
+public enum TreeShape {
+
+    // 루트 하나 아래 10,000 개
+    WIDE {
+        @Override
+        void grow(HierarchyTree.Builder builder, String rootId, List<String> deepest) {
+            for (int i = 0; i < 10_000; i++) {
+                builder.add(id(i), rootId);
+            }
+            deepest.add(id(0));
+        }
+    },
+    // 1,000 단계 chain
+    DEEP {
+        @Override
+        void grow(HierarchyTree.Builder builder, String rootId, List<String> deepest) {
+            String parentId = rootId;
+            for (int i = 0; i < 1_000; i++) {
+                builder.add(id(i), parentId);
+                parentId = id(i);
+            }
+            deepest.add(parentId);
+        }
+    },
+    // fan-out 10, 깊이 4 (11,110 개)
+    BALANCED {
+        @Override
+        void grow(HierarchyTree.Builder builder, String rootId, List<String> deepest) {
+            List<String> level = List.of(rootId);
+            int sequence = 0;
+            for (int depth = 0; depth < 4; depth++) {
+                List<String> next = new ArrayList<>();
+                for (String parentId : level) {
+                    for (int i = 0; i < 10; i++) {
+                        String id = id(sequence++);
+                        builder.add(id, parentId);
+                        next.add(id);
+                    }
+                }
+                level = next;
+            }
+            deepest.add(level.getLast());
+        }
+    };
+
+    public static final String ROOT_ID = "root";
+
+    abstract void grow(HierarchyTree.Builder builder, String rootId, List<String> deepest);
+
+    public Fixture build() {
+        HierarchyTree.Builder builder = HierarchyTree.builder().add(ROOT_ID, null);
+        List<String> deepest = new ArrayList<>();
+        grow(builder, ROOT_ID, deepest);
+        return new Fixture(builder.build(), deepest.getFirst());
+    }
+
+    private static String id(int sequence) {
+        return "g" + sequence;
+    }
+
+    // deepestId: 루트에서 가장 먼 그룹, 변경 벤치마크가 부모 집합이 가장 큰 곳을 건드리도록
+    public record Fixture(HierarchyTree tree, String deepestId) {
+    }
+}
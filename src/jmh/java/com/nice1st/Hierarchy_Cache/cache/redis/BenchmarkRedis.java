@@ -0,0 +1,33 @@
+package com.nice1st.Hierarchy_Cache.cache.redis;
+
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import com.nice1st.Hierarchy_Cache.config.RedisConfig;
+
+// 벤치마크 공용 연결. localhost:6379 의 DB 15 를 비우고 사용한다
+public final class BenchmarkRedis {
+
+    private BenchmarkRedis() {
+    }
+
+    public static LettuceConnectionFactory connect() {
+        RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration("localhost", 6379);
+        configuration.setDatabase(15);
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(configuration);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        try (var connection = connectionFactory.getConnection()) {
+            connection.serverCommands().flushDb();
+        }
+        return connectionFactory;
+    }
+
+    public static RedisTemplate<String, String> redisTemplate(LettuceConnectionFactory connectionFactory) {
+        RedisTemplate<String, String> redisTemplate = new RedisConfig().redisTemplate(connectionFactory);
+        redisTemplate.afterPropertiesSet();
+        return redisTemplate;
+    }
+}
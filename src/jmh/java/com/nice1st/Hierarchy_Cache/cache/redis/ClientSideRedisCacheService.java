@@ -0,0 +1,111 @@
+package com.nice1st.Hierarchy_Cache.cache.redis;
+
+import static com.nice1st.Hierarchy_Cache.cache.redis.RedisCacheKeyUtil.*;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+
+// Lua 스크립트 도입 전 클라이언트 측 갱신 방식 (벤치마크 비교 기준)
+public class ClientSideRedisCacheService extends RedisCacheService {
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    public ClientSideRedisCacheService(RedisTemplate<String, String> redisTemplate, int bulkLoadChunkSize) {
+        super(redisTemplate, bulkLoadChunkSize);
+        this.redisTemplate = redisTemplate;
+    }
+
+    private void add(String tenantId, String groupId, Map<String, Integer> parents, Map<String, Integer> children) {
+        if (!parents.isEmpty()) {
+            redisTemplate.opsForZSet().add(getParentsKey(tenantId, groupId), tuples(parents));
+        }
+
+        if (!children.isEmpty()) {
+            redisTemplate.opsForZSet().add(getChildrenKey(tenantId, groupId), tuples(children));
+        }
+    }
+
+    private void removeParents(String tenantId, String parentId, Collection<String> parents) {
+        redisTemplate.opsForZSet().remove(getParentsKey(tenantId, parentId), parents.toArray(new Object[0]));
+    }
+
+    private void removeChildren(String tenantId, String parentId, Collection<String> children) {
+        redisTemplate.opsForZSet().remove(getChildrenKey(tenantId, parentId), children.toArray(new Object[0]));
+    }
+
+    private void delete(String tenantId, String groupId) {
+        redisTemplate.delete(getParentsKey(tenantId, groupId));
+        redisTemplate.delete(getChildrenKey(tenantId, groupId));
+    }
+
+    private VO find(String tenantId, String groupId) {
+        return VO.builder()
+          .id(groupId)
+          .parents(depths(getParentsKey(tenantId, groupId)))
+          .children(depths(getChildrenKey(tenantId, groupId)))
+          .build();
+    }
+
+    private Map<String, Integer> depths(String key) {
+        Set<TypedTuple<String>> tuples = Optional.ofNullable(redisTemplate.opsForZSet().rangeWithScores(key, 0, -1))
+          .orElse(Collections.emptySet());
+        Map<String, Integer> depths = new HashMap<>();
+        tuples.forEach(tuple -> depths.put(tuple.getValue(), tuple.getScore().intValue()));
+        return depths;
+    }
+
+    // 모든 깊이에 offset 을 더한 사본
+    private static Map<String, Integer> shifted(Map<String, Integer> depths, int offset) {
+        Map<String, Integer> shifted = new HashMap<>();
+        depths.forEach((id, depth) -> shifted.put(id, depth + offset));
+        return shifted;
+    }
+
+    @Override
+    public void deleteGroup(String tenantId, String groupId) {
+        VO vo = find(tenantId, groupId);
+        vo.getParents().keySet().forEach(parentId -> removeChildren(tenantId, parentId, Collections.singleton(groupId)));
+        delete(tenantId, groupId);
+    }
+
+    @Override
+    public void createGroup(String tenantId, String parentId, String id) {
+        VO parent = find(tenantId, parentId);
+        VO insertVO = VO.fromParent(parent, id);
+        redisTemplate.delete(getParentsKey(tenantId, id));
+        add(tenantId, id, insertVO.getParents(), Collections.emptyMap());
+        add(tenantId, parent.getId(), Collections.emptyMap(), Map.of(id, 1));
+        parent.getParents().forEach((grandparentId, depth) ->
+          add(tenantId, grandparentId, Collections.emptyMap(), Map.of(id, depth + 1)));
+    }
+
+    @Override
+    public void moveGroup(String tenantId, String newParentId, String targetId) {
+        VO target = find(tenantId, targetId);
+        VO parent = find(tenantId, newParentId);
+        for (String parentId : target.getParents().keySet()) {
+            removeChildren(tenantId, parentId, Collections.singleton(target.getId()));
+            removeChildren(tenantId, parentId, target.getChildren().keySet());
+        }
+        removeParents(tenantId, targetId, target.getParents().keySet());
+        for (String childId : target.getChildren().keySet()) {
+            removeParents(tenantId, childId, target.getParents().keySet());
+        }
+        target.getParents().clear();
+        target.getParents().putAll(VO.fromParent(parent, targetId).getParents());
+        add(tenantId, targetId, target.getParents(), Collections.emptyMap());
+        target.getChildren().forEach((childId, depth) ->
+          add(tenantId, childId, shifted(target.getParents(), depth), Collections.emptyMap()));
+        target.getParents().forEach((parentId, depth) -> {
+            add(tenantId, parentId, Collections.emptyMap(), Map.of(target.getId(), depth));
+            add(tenantId, parentId, Collections.emptyMap(), shifted(target.getChildren(), depth));
+        });
+    }
+}
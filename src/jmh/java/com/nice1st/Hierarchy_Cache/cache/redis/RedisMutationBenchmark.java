@@ -0,0 +1,98 @@
+package com.nice1st.Hierarchy_Cache.cache.redis;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+
+// localhost:6379 의 Redis 가 필요하다 (DB 15 를 flush 하며 사용)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RedisMutationBenchmark {
+
+    private static final String TENANT_ID = "bench";
+
+    @Param({"script", "client"})
+    public String mode;
+
+    @Param({"10"})
+    public int depth;
+
+    @Param({"100", "5000"})
+    public int subtreeSize;
+
+    private LettuceConnectionFactory connectionFactory;
+
+    private RedisCacheService cacheService;
+
+    private String leftParentId;
+
+    private String rightParentId;
+
+    private String subtreeRootId;
+
+    private boolean movedRight;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        connectionFactory = BenchmarkRedis.connect();
+        RedisTemplate<String, String> redisTemplate = BenchmarkRedis.redisTemplate(connectionFactory);
+
+        RedisCacheService scripted = new RedisCacheService(redisTemplate, 1_000);
+        scripted.loadScripts();
+        cacheService = "script".equals(mode) ? scripted : new ClientSideRedisCacheService(redisTemplate, 1_000);
+
+        // 깊은 두 갈래 chain 을 만들고 한쪽 끝에 subtree 를 매단다
+        leftParentId = chain(scripted, "root", depth);
+        rightParentId = chain(scripted, "root", depth);
+        subtreeRootId = newId();
+        scripted.createGroup(TENANT_ID, leftParentId, subtreeRootId);
+        for (int i = 1; i < subtreeSize; i++) {
+            scripted.createGroup(TENANT_ID, subtreeRootId, newId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    @Benchmark
+    public void moveGroup() {
+        cacheService.moveGroup(TENANT_ID, movedRight ? leftParentId : rightParentId, subtreeRootId);
+        movedRight = !movedRight;
+    }
+
+    @Benchmark
+    public void createAndDeleteGroup() {
+        String id = newId();
+        cacheService.createGroup(TENANT_ID, rightParentId, id);
+        cacheService.deleteGroup(TENANT_ID, id);
+    }
+
+    private String chain(RedisCacheService service, String rootId, int length) {
+        String parentId = rootId;
+        for (int i = 0; i < length; i++) {
+            String id = newId();
+            service.createGroup(TENANT_ID, parentId, id);
+            parentId = id;
+        }
+        return parentId;
+    }
+
+    private static String newId() {
+        return UUID.randomUUID().toString();
+    }
+}
@@ -2,8 +2,10 @@ package com.nice1st.Hierarchy_Cache;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class HierarchyCacheApplication {
 
     public static void main(String[] args) {
@@ -1,11 +1,12 @@
 package com.nice1st.Hierarchy_Cache.cache;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
-import com.nice1st.Hierarchy_Cache.domain.HierarchyGroup;
-
 public interface CacheService {
 
     String getRootGroup();
@@ -14,7 +15,15 @@ public interface CacheService {
 
     void updateCursor(String tenantId, Long tsid);
 
-    void initialize(String tenantId, Map<String, List<HierarchyGroup>> groupByParentId);
+    Optional<String> getHighWaterMark(String tenantId);
+
+    void advanceHighWaterMark(String tenantId, Long tsid);
+
+    void initialize(String tenantId, HierarchyTree tree);
+
+    // 따라잡기 중 적용했지만 updateCursor 로 확정하지 못한 변경을 버린다, 바로 저장소에 쓰는 구현은 할 일이 없다
+    default void discardPending(String tenantId) {
+    }
 
     void deleteGroup(String tenantId, String groupId);
 
@@ -24,7 +33,38 @@ public interface CacheService {
 
     Set<String> getParents(String tenantId, String groupId);
 
+    default Map<String, Set<String>> getParents(String tenantId, Collection<String> groupIds) {
+        Map<String, Set<String>> parentsByGroup = new HashMap<>();
+        for (String groupId : groupIds) {
+            parentsByGroup.put(groupId, getParents(tenantId, groupId));
+        }
+        return parentsByGroup;
+    }
+
     Set<String> getChildren(String tenantId, String groupId);
 
+    // groupId 기준 상대 깊이 maxDepth 까지의 하위(자신 제외), 1 이면 직속 자식만
+    Set<String> getChildren(String tenantId, String groupId, int maxDepth);
+
+    // 최상위 그룹부터 groupId 자신까지 순서대로, 캐시에 없는 그룹이면 빈 목록
+    List<String> getPath(String tenantId, String groupId);
+
+    // 페이지 커서 위치의 의미를 정하는 저장소 이름, 읽기 서비스가 커서에 붙여 다른 저장소의 커서를 거절한다
+    String pageSource();
+
+    // cursor 는 첫 페이지일 때 null, 이후에는 이전 페이지의 nextCursor
+    ChildrenPage getChildren(String tenantId, String groupId, String cursor, int limit);
+
+    // 여러 그룹의 하위 집합을 캐시 쪽에서 한 번에 합친다, groupIds 는 비어 있지 않다
+    Set<String> combineChildren(String tenantId, List<String> groupIds, SetOperation operation);
+
+    // candidateIds 중 groupId 의 하위(자신 제외)에 속한 것만, 하위 집합 전체를 꺼내지 않고 판정한다
+    Set<String> filterChildren(String tenantId, String groupId, Collection<String> candidateIds);
+
+    // 하위 집합을 꺼내지 않고 갱신 시 유지되는 값으로 답한다
+    SubtreeStats getSubtreeStats(String tenantId, String groupId);
+
+    HierarchyStats getStats(String tenantId);
+
     boolean hasCached(String tenantId, String groupId);
 }
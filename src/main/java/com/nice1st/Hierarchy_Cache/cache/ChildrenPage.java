@@ -0,0 +1,11 @@
+package com.nice1st.Hierarchy_Cache.cache;
+
+import java.util.List;
+
+// nextCursor 가 null 이면 마지막 페이지
+public record ChildrenPage(List<String> ids, String nextCursor) {
+
+    public static ChildrenPage empty() {
+        return new ChildrenPage(List.of(), null);
+    }
+}
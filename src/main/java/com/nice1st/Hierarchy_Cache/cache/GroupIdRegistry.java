@@ -0,0 +1,7 @@
+package com.nice1st.Hierarchy_Cache.cache;
+
+// 캐시가 그룹 id 를 별도 번호로 저장할 때, 쓰기 측이 새 그룹을 미리 등록하는 창구
+public interface GroupIdRegistry {
+
+    String intern(String tenantId, String groupId);
+}
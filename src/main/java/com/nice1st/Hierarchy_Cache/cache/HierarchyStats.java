@@ -0,0 +1,27 @@
+package com.nice1st.Hierarchy_Cache.cache;
+
+import java.util.Map;
+
+// 테넌트 전체 통계. height 는 가장 깊은 그룹의 깊이(최상위 0), fan-out 은 자식이 있는 그룹만 센다
+public record HierarchyStats(long groups, int height, int maxFanOut, double averageFanOut) {
+
+    // 깊이별 그룹 수와 직속 자식 수(1 이상)별 그룹 수 분포로부터 계산
+    public static HierarchyStats of(Map<Integer, Long> groupsByDepth, Map<Integer, Long> groupsByFanOut) {
+        long groups = 0;
+        int height = 0;
+        for (Map.Entry<Integer, Long> entry : groupsByDepth.entrySet()) {
+            groups += entry.getValue();
+            height = Math.max(height, entry.getKey());
+        }
+
+        long edges = 0;
+        long parents = 0;
+        int maxFanOut = 0;
+        for (Map.Entry<Integer, Long> entry : groupsByFanOut.entrySet()) {
+            edges += entry.getKey() * entry.getValue();
+            parents += entry.getValue();
+            maxFanOut = Math.max(maxFanOut, entry.getKey());
+        }
+        return new HierarchyStats(groups, height, maxFanOut, parents == 0 ? 0 : (double) edges / parents);
+    }
+}
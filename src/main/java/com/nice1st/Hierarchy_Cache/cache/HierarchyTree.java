@@ -0,0 +1,224 @@
+package com.nice1st.Hierarchy_Cache.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// 테넌트 트리의 인접 구조. 엔티티 없이 id 배열과 CSR(자식 offset) 배열만 보관한다
+// 노드는 0 ~ size()-1 의 int, root() 는 최상위 그룹들의 가상 부모
+public final class HierarchyTree {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    // id 인코딩 태그, UUID 는 16바이트로 나머지는 UTF 로
+    private static final byte UUID_ID = 0;
+    private static final byte STRING_ID = 1;
+
+    private final String[] ids;
+    private final int[] childOffsets;
+    private final int[] children;
+
+    private HierarchyTree(String[] ids, int[] childOffsets, int[] children) {
+        this.ids = ids;
+        this.childOffsets = childOffsets;
+        this.children = children;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public int root() {
+        return ids.length;
+    }
+
+    public String id(int node) {
+        return ids[node];
+    }
+
+    // 노드 순서대로의 id, withIds 로 같은 구조에 다른 id 를 붙일 때 쓴다
+    public List<String> ids() {
+        return Arrays.asList(ids.clone());
+    }
+
+    // 구조는 그대로 두고 노드 id 만 바꾼 트리
+    public HierarchyTree withIds(List<String> ids) {
+        if (ids.size() != this.ids.length) {
+            throw new IllegalArgumentException("Expected " + this.ids.length + " ids but got " + ids.size());
+        }
+        return new HierarchyTree(ids.toArray(new String[0]), childOffsets, children);
+    }
+
+    public int childCount(int node) {
+        return childOffsets[node + 1] - childOffsets[node];
+    }
+
+    public int child(int node, int index) {
+        return children[childOffsets[node] + index];
+    }
+
+    // 단건 조회용 선형 탐색, 없으면 -1
+    public int indexOf(String id) {
+        for (int node = 0; node < ids.length; node++) {
+            if (ids[node].equals(id)) {
+                return node;
+            }
+        }
+        return -1;
+    }
+
+    // 깊이(최상위 0)별 그룹 수, 가상 루트에서 너비 우선으로 내려간다
+    public Map<Integer, Long> groupsByDepth() {
+        Map<Integer, Long> groupsByDepth = new HashMap<>();
+        int[] depths = new int[size() + 1];
+        int[] queue = new int[size() + 1];
+        int head = 0;
+        int tail = 0;
+        depths[root()] = -1;
+        queue[tail++] = root();
+        while (head < tail) {
+            int node = queue[head++];
+            for (int i = 0; i < childCount(node); i++) {
+                int child = child(node, i);
+                depths[child] = depths[node] + 1;
+                groupsByDepth.merge(depths[child], 1L, Long::sum);
+                queue[tail++] = child;
+            }
+        }
+        return groupsByDepth;
+    }
+
+    // 직속 자식 수별 그룹 수, 자식이 없는 그룹은 세지 않는다
+    public Map<Integer, Long> groupsByFanOut() {
+        Map<Integer, Long> groupsByFanOut = new HashMap<>();
+        for (int node = 0; node < size(); node++) {
+            if (childCount(node) > 0) {
+                groupsByFanOut.merge(childCount(node), 1L, Long::sum);
+            }
+        }
+        return groupsByFanOut;
+    }
+
+    // 버전, 그룹 수, id 배열, CSR 배열 순서의 바이너리
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(ids.length * 28 + 16);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeInt(ids.length);
+            for (String id : ids) {
+                UUID uuid = asUuid(id);
+                if (uuid != null) {
+                    out.writeByte(UUID_ID);
+                    out.writeLong(uuid.getMostSignificantBits());
+                    out.writeLong(uuid.getLeastSignificantBits());
+                } else {
+                    out.writeByte(STRING_ID);
+                    out.writeUTF(id);
+                }
+            }
+            for (int offset : childOffsets) {
+                out.writeInt(offset);
+            }
+            for (int child : children) {
+                out.writeInt(child);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static HierarchyTree fromBytes(byte[] bytes) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported snapshot format: " + version);
+            }
+
+            int size = in.readInt();
+            String[] ids = new String[size];
+            for (int node = 0; node < size; node++) {
+                ids[node] = in.readByte() == UUID_ID
+                  ? new UUID(in.readLong(), in.readLong()).toString()
+                  : in.readUTF();
+            }
+            int[] childOffsets = new int[size + 2];
+            for (int i = 0; i < childOffsets.length; i++) {
+                childOffsets[i] = in.readInt();
+            }
+            int[] children = new int[size];
+            for (int i = 0; i < size; i++) {
+                children[i] = in.readInt();
+            }
+            return new HierarchyTree(ids, childOffsets, children);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // 표기가 그대로 복원되는 UUID 만 16바이트로 줄인다
+    private static UUID asUuid(String id) {
+        if (id.length() != 36) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(id);
+            return uuid.toString().equals(id) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public static class Builder {
+
+        private final List<String> ids = new ArrayList<>();
+        private final List<String> parentIds = new ArrayList<>();
+
+        public Builder add(String id, String parentId) {
+            ids.add(id);
+            parentIds.add(parentId);
+            return this;
+        }
+
+        public HierarchyTree build() {
+            int size = ids.size();
+            Map<String, Integer> nodeById = new HashMap<>(size * 4 / 3 + 1);
+            for (int node = 0; node < size; node++) {
+                nodeById.put(ids.get(node), node);
+            }
+
+            // 부모가 없거나 테넌트 밖이면 가상 루트(size) 아래로
+            int[] parents = new int[size];
+            int[] childOffsets = new int[size + 2];
+            for (int node = 0; node < size; node++) {
+                String parentId = parentIds.get(node);
+                Integer parent = parentId != null ? nodeById.get(parentId) : null;
+                parents[node] = parent != null ? parent : size;
+                childOffsets[parents[node] + 1]++;
+            }
+            for (int node = 0; node <= size; node++) {
+                childOffsets[node + 1] += childOffsets[node];
+            }
+
+            int[] children = new int[size];
+            int[] next = Arrays.copyOf(childOffsets, size + 1);
+            for (int node = 0; node < size; node++) {
+                children[next[parents[node]]++] = node;
+            }
+            return new HierarchyTree(ids.toArray(new String[0]), childOffsets, children);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.nice1st.Hierarchy_Cache.cache;
+
+// 형식이 잘못됐거나, 만든 저장소/상태가 지금과 달라 이어 읽을 수 없는 페이지 커서
+public class InvalidCursorException extends IllegalArgumentException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
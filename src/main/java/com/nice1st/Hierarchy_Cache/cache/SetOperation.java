@@ -0,0 +1,27 @@
+package com.nice1st.Hierarchy_Cache.cache;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// 여러 그룹의 하위 집합을 합칠 때의 연산, DIFFERENCE 는 첫 집합에서 나머지 전부를 뺀다
+public enum SetOperation {
+    UNION, INTERSECTION, DIFFERENCE;
+
+    // 캐시 밖(DB 폴백 등)에서 이미 꺼낸 집합들을 합칠 때 사용
+    public Set<String> apply(List<? extends Set<String>> sets) {
+        if (sets.isEmpty()) {
+            return new HashSet<>();
+        }
+
+        Set<String> result = new HashSet<>(sets.getFirst());
+        for (Set<String> set : sets.subList(1, sets.size())) {
+            switch (this) {
+                case UNION -> result.addAll(set);
+                case INTERSECTION -> result.retainAll(set);
+                case DIFFERENCE -> result.removeAll(set);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,5 @@
+package com.nice1st.Hierarchy_Cache.cache;
+
+// descendants 는 자신을 제외한 하위 수, height 는 가장 깊은 하위의 상대 깊이(하위가 없으면 0)
+public record SubtreeStats(long descendants, int height) {
+}
@@ -0,0 +1,44 @@
+package com.nice1st.Hierarchy_Cache.cache.local;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 테넌트 안에서 group UUID 를 0 부터 증가하는 int 로 매핑한다
+class GroupIdDictionary {
+
+    private final Map<String, Integer> idByGroup = new ConcurrentHashMap<>();
+
+    private volatile String[] groupById = new String[1024];
+
+    private int size;
+
+    // 테넌트 쓰기 락 안에서만 호출된다
+    int intern(String groupId) {
+        Integer id = idByGroup.get(groupId);
+        if (id != null) {
+            return id;
+        }
+
+        String[] groups = groupById;
+        if (size == groups.length) {
+            groups = Arrays.copyOf(groups, size * 2);
+        }
+        groups[size] = groupId;
+        groupById = groups;
+        idByGroup.put(groupId, size);
+        return size++;
+    }
+
+    Integer id(String groupId) {
+        return idByGroup.get(groupId);
+    }
+
+    String group(int id) {
+        return groupById[id];
+    }
+
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,75 @@
+package com.nice1st.Hierarchy_Cache.cache.local;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+// bitmap 을 그대로 들고 있다가 순회할 때만 UUID 로 decode 하는 읽기 전용 Set
+final class GroupIdSet extends AbstractSet<String> {
+
+    private final RoaringBitmap ids;
+
+    private final GroupIdDictionary dictionary;
+
+    GroupIdSet(RoaringBitmap ids, GroupIdDictionary dictionary) {
+        this.ids = ids;
+        this.dictionary = dictionary;
+    }
+
+    RoaringBitmap bitmap() {
+        return ids;
+    }
+
+    GroupIdSet or(GroupIdSet other) {
+        return new GroupIdSet(RoaringBitmap.or(ids, other.ids), dictionary);
+    }
+
+    GroupIdSet and(GroupIdSet other) {
+        return new GroupIdSet(RoaringBitmap.and(ids, other.ids), dictionary);
+    }
+
+    GroupIdSet andNot(GroupIdSet other) {
+        return new GroupIdSet(RoaringBitmap.andNot(ids, other.ids), dictionary);
+    }
+
+    @Override
+    public int size() {
+        return ids.getCardinality();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return ids.isEmpty();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof String groupId)) {
+            return false;
+        }
+        Integer id = dictionary.id(groupId);
+        return id != null && ids.contains(id);
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        PeekableIntIterator iterator = ids.getIntIterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public String next() {
+                if (!iterator.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return dictionary.group(iterator.next());
+            }
+        };
+    }
+}
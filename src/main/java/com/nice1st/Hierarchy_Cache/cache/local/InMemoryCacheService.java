@@ -1,17 +1,32 @@
 package com.nice1st.Hierarchy_Cache.cache.local;
 
 import com.nice1st.Hierarchy_Cache.cache.CacheService;
-import com.nice1st.Hierarchy_Cache.domain.HierarchyGroup;
+import com.nice1st.Hierarchy_Cache.cache.ChildrenPage;
+import com.nice1st.Hierarchy_Cache.cache.HierarchyStats;
+import com.nice1st.Hierarchy_Cache.cache.HierarchyTree;
+import com.nice1st.Hierarchy_Cache.cache.InvalidCursorException;
+import com.nice1st.Hierarchy_Cache.cache.SetOperation;
+import com.nice1st.Hierarchy_Cache.cache.SubtreeStats;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
 
 public class InMemoryCacheService implements CacheService {
 
     private static final String ROOT_GROUP = "ROOT_GROUP";
 
-    private final Map<String, Set<String>> parentsByGroup = new HashMap<>();
-    private final Map<String, Set<String>> childrenByGroup = new HashMap<>();
-    private final Map<String, String> cursorByTenant = new HashMap<>();
+    private static final TenantCache EMPTY = new TenantCache();
+
+    private final Map<String, TenantCache> cacheByTenant = new ConcurrentHashMap<>();
+    private final Map<String, Object> writeLockByTenant = new ConcurrentHashMap<>();
+    private final Map<String, String> cursorByTenant = new ConcurrentHashMap<>();
+    private final Map<String, Long> highWaterMarkByTenant = new ConcurrentHashMap<>();
 
     @Override
     public String getRootGroup() {
@@ -29,123 +44,465 @@ public class InMemoryCacheService implements CacheService {
     }
 
     @Override
-    public void initialize(String tenantId, Map<String, List<HierarchyGroup>> groupByParentId) {
-        // clear tenant space: since we do not namespace by tenant in maps, clear all
-        parentsByGroup.clear();
-        childrenByGroup.clear();
-
-        for (HierarchyGroup root : groupByParentId.getOrDefault(ROOT_GROUP, Collections.emptyList())) {
-            buildRecursively(root.getId(), groupByParentId);
-        }
+    public Optional<String> getHighWaterMark(String tenantId) {
+        return Optional.ofNullable(highWaterMarkByTenant.get(tenantId)).map(String::valueOf);
     }
 
-    private void buildRecursively(String parentId, Map<String, List<HierarchyGroup>> groupByParentId) {
-        for (HierarchyGroup child : groupByParentId.getOrDefault(parentId, Collections.emptyList())) {
-            // ensure maps
-            parentsByGroup.computeIfAbsent(child.getId(), k -> new HashSet<>());
-            childrenByGroup.computeIfAbsent(child.getId(), k -> new HashSet<>());
-            parentsByGroup.computeIfAbsent(parentId, k -> new HashSet<>());
-            childrenByGroup.computeIfAbsent(parentId, k -> new HashSet<>());
-
-            // add parent and inherit ancestors
-            parentsByGroup.get(child.getId()).add(parentId);
-            parentsByGroup.get(child.getId()).addAll(parentsByGroup.get(parentId));
+    @Override
+    public void advanceHighWaterMark(String tenantId, Long tsid) {
+        highWaterMarkByTenant.merge(tenantId, tsid, Math::max);
+    }
 
-            // add child to all ancestors including parent
-            childrenByGroup.get(parentId).add(child.getId());
-            for (String ancestor : parentsByGroup.get(parentId)) {
-                childrenByGroup.get(ancestor).add(child.getId());
-            }
+    @Override
+    public void initialize(String tenantId, HierarchyTree tree) {
+        // build a fresh namespace off to the side; readers keep seeing the old one until the swap
+        TenantCache cache = new TenantCache();
+        for (int i = 0; i < tree.childCount(tree.root()); i++) {
+            cache.build(tree, tree.child(tree.root(), i));
+        }
 
-            buildRecursively(child.getId(), groupByParentId);
+        synchronized (writeLock(tenantId)) {
+            cacheByTenant.put(tenantId, cache);
         }
     }
 
     @Override
     public void deleteGroup(String tenantId, String groupId) {
-        Set<String> parents = parentsByGroup.getOrDefault(groupId, Collections.emptySet());
-        for (String p : new HashSet<>(parents)) {
-            childrenByGroup.getOrDefault(p, Collections.emptySet()).remove(groupId);
-        }
-        // remove this group's links
-        parentsByGroup.remove(groupId);
-        childrenByGroup.remove(groupId);
+        write(tenantId, cache -> cache.deleteGroup(groupId));
     }
 
     @Override
     public void createGroup(String tenantId, String parentId, String id) {
-        parentsByGroup.computeIfAbsent(id, k -> new HashSet<>());
-        childrenByGroup.computeIfAbsent(id, k -> new HashSet<>());
-        parentsByGroup.computeIfAbsent(parentId, k -> new HashSet<>());
-        childrenByGroup.computeIfAbsent(parentId, k -> new HashSet<>());
+        write(tenantId, cache -> cache.createGroup(parentId, id));
+    }
 
-        // set parents = parent + parent's ancestors
-        parentsByGroup.get(id).clear();
-        parentsByGroup.get(id).add(parentId);
-        parentsByGroup.get(id).addAll(parentsByGroup.get(parentId));
+    @Override
+    public void moveGroup(String tenantId, String newParentId, String targetId) {
+        write(tenantId, cache -> cache.moveGroup(newParentId, targetId));
+    }
 
-        // add child to parent and all ancestors
-        childrenByGroup.get(parentId).add(id);
-        for (String ancestor : parentsByGroup.get(parentId)) {
-            childrenByGroup.get(ancestor).add(id);
-        }
+    @Override
+    public Set<String> getParents(String tenantId, String groupId) {
+        return read(tenantId).view(groupId, true);
     }
 
     @Override
-    public void moveGroup(String tenantId, String newParentId, String targetId) {
-        // remove references from old parents
-        for (String oldParent : new HashSet<>(parentsByGroup.getOrDefault(targetId, Collections.emptySet()))) {
-            childrenByGroup.getOrDefault(oldParent, Collections.emptySet()).remove(targetId);
-            for (String child : new HashSet<>(childrenByGroup.getOrDefault(targetId, Collections.emptySet()))) {
-                childrenByGroup.getOrDefault(oldParent, Collections.emptySet()).remove(child);
-            }
-        }
-        // remove old parent links from target and its children
-        Set<String> oldParents = new HashSet<>(parentsByGroup.getOrDefault(targetId, Collections.emptySet()));
-        parentsByGroup.put(targetId, new HashSet<>());
-        for (String child : new HashSet<>(childrenByGroup.getOrDefault(targetId, Collections.emptySet()))) {
-            parentsByGroup.getOrDefault(child, new HashSet<>()).removeAll(oldParents);
-        }
+    public Set<String> getChildren(String tenantId, String groupId) {
+        return read(tenantId).view(groupId, false);
+    }
 
-        // set new parents (newParent + its ancestors)
-        parentsByGroup.computeIfAbsent(newParentId, k -> new HashSet<>());
-        parentsByGroup.computeIfAbsent(targetId, k -> new HashSet<>());
-        parentsByGroup.get(targetId).add(newParentId);
-        parentsByGroup.get(targetId).addAll(parentsByGroup.get(newParentId));
+    @Override
+    public Set<String> getChildren(String tenantId, String groupId, int maxDepth) {
+        return read(tenantId).within(groupId, maxDepth);
+    }
 
-        // propagate new parents to target's children
-        for (String child : new HashSet<>(childrenByGroup.getOrDefault(targetId, Collections.emptySet()))) {
-            parentsByGroup.computeIfAbsent(child, k -> new HashSet<>());
-            parentsByGroup.get(child).addAll(parentsByGroup.get(targetId));
-        }
+    @Override
+    public List<String> getPath(String tenantId, String groupId) {
+        return read(tenantId).path(groupId);
+    }
 
-        // add target and its children to new parents' children sets
-        childrenByGroup.computeIfAbsent(newParentId, k -> new HashSet<>());
-        childrenByGroup.get(newParentId).add(targetId);
-        for (String ancestor : parentsByGroup.get(newParentId)) {
-            childrenByGroup.computeIfAbsent(ancestor, k -> new HashSet<>());
-            childrenByGroup.get(ancestor).add(targetId);
-        }
-        for (String child : new HashSet<>(childrenByGroup.getOrDefault(targetId, Collections.emptySet()))) {
-            childrenByGroup.get(newParentId).add(child);
-            for (String ancestor : parentsByGroup.get(newParentId)) {
-                childrenByGroup.get(ancestor).add(child);
-            }
-        }
+    @Override
+    public String pageSource() {
+        return "memory";
     }
 
     @Override
-    public Set<String> getParents(String tenantId, String groupId) {
-        return parentsByGroup.getOrDefault(groupId, Collections.emptySet());
+    public ChildrenPage getChildren(String tenantId, String groupId, String cursor, int limit) {
+        return read(tenantId).page(groupId, cursor, limit);
     }
 
     @Override
-    public Set<String> getChildren(String tenantId, String groupId) {
-        return childrenByGroup.getOrDefault(groupId, Collections.emptySet());
+    public Set<String> combineChildren(String tenantId, List<String> groupIds, SetOperation operation) {
+        return read(tenantId).combine(groupIds, operation);
+    }
+
+    @Override
+    public Set<String> filterChildren(String tenantId, String groupId, Collection<String> candidateIds) {
+        return read(tenantId).filter(groupId, candidateIds);
+    }
+
+    @Override
+    public SubtreeStats getSubtreeStats(String tenantId, String groupId) {
+        return read(tenantId).subtreeStats(groupId);
+    }
+
+    @Override
+    public HierarchyStats getStats(String tenantId) {
+        return read(tenantId).stats();
     }
 
     @Override
     public boolean hasCached(String tenantId, String groupId) {
-        return parentsByGroup.containsKey(groupId) || childrenByGroup.containsKey(groupId);
+        return read(tenantId).hasCached(groupId);
+    }
+
+    // exports the tenant back into a tree, e.g. to persist it as a snapshot
+    public HierarchyTree snapshot(String tenantId) {
+        synchronized (writeLock(tenantId)) {
+            return read(tenantId).tree();
+        }
+    }
+
+    private TenantCache read(String tenantId) {
+        return cacheByTenant.getOrDefault(tenantId, EMPTY);
+    }
+
+    // writers are serialized per tenant, readers never block
+    private void write(String tenantId, Consumer<TenantCache> mutation) {
+        synchronized (writeLock(tenantId)) {
+            mutation.accept(cacheByTenant.computeIfAbsent(tenantId, k -> new TenantCache()));
+        }
+    }
+
+    private Object writeLock(String tenantId) {
+        return writeLockByTenant.computeIfAbsent(tenantId, k -> new Object());
+    }
+
+    // groups are interned to dense ints; ancestors are a walk over parent pointers and
+    // descendants are RoaringBitmaps. every group also sits in the bitmap of its absolute depth, so
+    // "descendants up to n levels down" is the descendant bitmap and-ed with n depth buckets.
+    // the number of groups per direct-child count is kept alongside, so tenant stats never walk the tree.
+    // published bitmaps are never mutated: writers copy, change and put them back
+    private static class TenantCache {
+
+        private static final int ROOT = -1;
+        private static final int UNKNOWN = -2;
+        private static final RoaringBitmap NONE = new RoaringBitmap();
+
+        private final GroupIdDictionary dictionary = new GroupIdDictionary();
+        // numbers are only meaningful to this dictionary; initialize (or a snapshot download) starts a new one
+        private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        private final Map<Integer, RoaringBitmap> childrenById = new ConcurrentHashMap<>();
+        private final NavigableMap<Integer, RoaringBitmap> idsByDepth = new ConcurrentSkipListMap<>();
+        private final Map<Integer, Integer> fanOutById = new HashMap<>();
+        private final NavigableMap<Integer, Long> groupsByFanOut = new ConcurrentSkipListMap<>();
+        private volatile int[] parentById = new int[0];
+
+        private Set<String> view(String groupId, boolean parents) {
+            Integer id = dictionary.id(groupId);
+            if (id == null) {
+                return Collections.emptySet();
+            }
+            RoaringBitmap bitmap = parents ? ancestors(id) : childrenById.get(id);
+            return bitmap != null ? new GroupIdSet(bitmap, dictionary) : Collections.emptySet();
+        }
+
+        private Set<String> within(String groupId, int maxDepth) {
+            Integer id = dictionary.id(groupId);
+            RoaringBitmap bitmap = id != null ? childrenById.get(id) : null;
+            if (bitmap == null || maxDepth < 1) {
+                return Collections.emptySet();
+            }
+
+            int depth = depthOf(id);
+            int last = (int) Math.min((long) depth + maxDepth, Integer.MAX_VALUE);
+            RoaringBitmap ids = new RoaringBitmap();
+            for (RoaringBitmap level : idsByDepth.subMap(depth, false, last, true).values()) {
+                ids.or(RoaringBitmap.and(bitmap, level));
+            }
+            return new GroupIdSet(ids, dictionary);
+        }
+
+        // height is the deepest depth bucket that still intersects the descendants
+        private SubtreeStats subtreeStats(String groupId) {
+            Integer id = dictionary.id(groupId);
+            RoaringBitmap bitmap = id != null ? childrenById.get(id) : null;
+            if (bitmap == null) {
+                return new SubtreeStats(0, 0);
+            }
+
+            int depth = depthOf(id);
+            for (Map.Entry<Integer, RoaringBitmap> level : idsByDepth.tailMap(depth, false).descendingMap().entrySet()) {
+                if (RoaringBitmap.intersects(bitmap, level.getValue())) {
+                    return new SubtreeStats(bitmap.getLongCardinality(), level.getKey() - depth);
+                }
+            }
+            return new SubtreeStats(bitmap.getLongCardinality(), 0);
+        }
+
+        private HierarchyStats stats() {
+            Map<Integer, Long> groupsByDepth = new HashMap<>();
+            idsByDepth.forEach((depth, ids) -> groupsByDepth.put(depth, ids.getLongCardinality()));
+            return HierarchyStats.of(groupsByDepth, groupsByFanOut);
+        }
+
+        // from the top group down to the group itself
+        private List<String> path(String groupId) {
+            Integer id = dictionary.id(groupId);
+            if (id == null || !hasCached(groupId)) {
+                return Collections.emptyList();
+            }
+
+            List<String> path = new ArrayList<>();
+            RoaringBitmap visited = new RoaringBitmap();
+            int parent = parentOf(id);
+            while (parent >= 0 && visited.checkedAdd(parent)) {
+                path.add(dictionary.group(parent));
+                parent = parentOf(parent);
+            }
+            Collections.reverse(path);
+            path.add(groupId);
+            return Collections.unmodifiableList(path);
+        }
+
+        // the cursor is "epoch.next interned id to visit"; ids never change within a dictionary,
+        // so it survives concurrent writes, but not a rebuild that interns the groups again
+        private ChildrenPage page(String groupId, String cursor, int limit) {
+            int next = cursor != null ? resumePoint(cursor) : 0;
+            Integer id = dictionary.id(groupId);
+            RoaringBitmap bitmap = id != null ? childrenById.get(id) : null;
+            if (bitmap == null) {
+                return ChildrenPage.empty();
+            }
+
+            PeekableIntIterator iterator = bitmap.getIntIterator();
+            iterator.advanceIfNeeded(next);
+            List<String> ids = new ArrayList<>();
+            while (iterator.hasNext() && ids.size() < limit) {
+                ids.add(dictionary.group(iterator.next()));
+            }
+            return new ChildrenPage(ids, iterator.hasNext() ? epoch + "." + iterator.peekNext() : null);
+        }
+
+        private int resumePoint(String cursor) {
+            int separator = cursor.indexOf('.');
+            if (separator < 0 || !cursor.substring(0, separator).equals(epoch)) {
+                throw new InvalidCursorException("Cursor predates a cache rebuild, restart from the first page");
+            }
+            try {
+                return Integer.parseInt(cursor.substring(separator + 1));
+            } catch (NumberFormatException e) {
+                throw new InvalidCursorException("Malformed cursor: " + cursor);
+            }
+        }
+
+        // bitmap algebra over the descendant sets; the result stays encoded until iterated
+        private Set<String> combine(List<String> groupIds, SetOperation operation) {
+            GroupIdSet result = bitmapOf(groupIds.getFirst());
+            GroupIdSet others = null;
+            for (String groupId : groupIds.subList(1, groupIds.size())) {
+                GroupIdSet set = bitmapOf(groupId);
+                switch (operation) {
+                    case UNION -> result = result.or(set);
+                    case INTERSECTION -> result = result.and(set);
+                    case DIFFERENCE -> others = others == null ? set : others.or(set);
+                }
+            }
+            return others != null ? result.andNot(others) : result;
+        }
+
+        private GroupIdSet bitmapOf(String groupId) {
+            Integer id = dictionary.id(groupId);
+            RoaringBitmap bitmap = id != null ? childrenById.get(id) : null;
+            return new GroupIdSet(bitmap != null ? bitmap : NONE, dictionary);
+        }
+
+        // probe the descendant bitmap with each candidate's interned id
+        private Set<String> filter(String groupId, Collection<String> candidateIds) {
+            Integer id = dictionary.id(groupId);
+            RoaringBitmap bitmap = id != null ? childrenById.get(id) : null;
+            if (bitmap == null) {
+                return Collections.emptySet();
+            }
+
+            Set<String> ids = new LinkedHashSet<>();
+            for (String candidateId : candidateIds) {
+                Integer candidate = dictionary.id(candidateId);
+                if (candidate != null && bitmap.contains(candidate)) {
+                    ids.add(candidateId);
+                }
+            }
+            return ids;
+        }
+
+        private boolean hasCached(String groupId) {
+            Integer id = dictionary.id(groupId);
+            return id != null && hasCached(id);
+        }
+
+        private boolean hasCached(int id) {
+            return parentOf(id) != UNKNOWN || childrenById.containsKey(id);
+        }
+
+        // deleted ids stay interned, so only groups that are still linked are exported
+        private HierarchyTree tree() {
+            HierarchyTree.Builder builder = HierarchyTree.builder();
+            for (int id = 0; id < dictionary.size(); id++) {
+                if (hasCached(id)) {
+                    int parent = parentOf(id);
+                    builder.add(dictionary.group(id), parent >= 0 ? dictionary.group(parent) : null);
+                }
+            }
+            return builder.build();
+        }
+
+        private int parentOf(int id) {
+            int[] parents = parentById;
+            return id < parents.length ? parents[id] : UNKNOWN;
+        }
+
+        private void setParent(int id, int parent) {
+            int[] parents = parentById;
+            if (id >= parents.length) {
+                int length = parents.length;
+                parents = Arrays.copyOf(parents, Math.max(id + 1, Math.max(1024, length * 2)));
+                Arrays.fill(parents, length, parents.length, UNKNOWN);
+            }
+            parents[id] = parent;
+            parentById = parents;
+        }
+
+        private RoaringBitmap ancestors(int id) {
+            // walk up to the root; checkedAdd stops on a cycle
+            RoaringBitmap ancestors = new RoaringBitmap();
+            int parent = parentOf(id);
+            while (parent >= 0 && ancestors.checkedAdd(parent)) {
+                parent = parentOf(parent);
+            }
+            return ancestors;
+        }
+
+        private int depthOf(int id) {
+            return ancestors(id).getCardinality();
+        }
+
+        // moves the group from one fan-out bucket to the next; groups without children are not counted
+        private void changeFanOut(int id, int delta) {
+            int from = fanOutById.getOrDefault(id, 0);
+            int to = Math.max(from + delta, 0);
+            if (from > 0) {
+                groupsByFanOut.computeIfPresent(from, (fanOut, groups) -> groups > 1 ? groups - 1 : null);
+            }
+            if (to > 0) {
+                groupsByFanOut.merge(to, 1L, Long::sum);
+                fanOutById.put(id, to);
+            } else {
+                fanOutById.remove(id);
+            }
+        }
+
+        private void updateLevel(int depth, Consumer<RoaringBitmap> change) {
+            RoaringBitmap next = idsByDepth.getOrDefault(depth, NONE).clone();
+            change.accept(next);
+            next.runOptimize();
+            if (next.isEmpty()) {
+                idsByDepth.remove(depth);
+            } else {
+                idsByDepth.put(depth, next);
+            }
+        }
+
+        private RoaringBitmap children(int id) {
+            return childrenById.getOrDefault(id, NONE);
+        }
+
+        private void updateChildren(int id, Consumer<RoaringBitmap> change) {
+            RoaringBitmap next = children(id).clone();
+            change.accept(next);
+            next.runOptimize();
+            if (next.isEmpty()) {
+                childrenById.remove(id);
+            } else {
+                childrenById.put(id, next);
+            }
+        }
+
+        private void build(HierarchyTree tree, int node) {
+            int root = dictionary.intern(tree.id(node));
+            setParent(root, ROOT);
+            idsByDepth.computeIfAbsent(0, k -> new RoaringBitmap()).add(root);
+            buildRecursively(root, 1, tree, node);
+        }
+
+        // ids are interned in pre-order, so the descendants of a group are exactly the range
+        // (id, last id interned under it]. returns that last id
+        private int buildRecursively(int parent, int depth, HierarchyTree tree, int node) {
+            int last = parent;
+            for (int i = 0; i < tree.childCount(node); i++) {
+                int child = tree.child(node, i);
+                int id = dictionary.intern(tree.id(child));
+                setParent(id, parent);
+                idsByDepth.computeIfAbsent(depth, k -> new RoaringBitmap()).add(id);
+                last = buildRecursively(id, depth + 1, tree, child);
+            }
+            if (tree.childCount(node) > 0) {
+                changeFanOut(parent, tree.childCount(node));
+            }
+
+            if (last > parent) {
+                childrenById.put(parent, RoaringBitmap.bitmapOfRange(parent + 1, last + 1L));
+            }
+            return last;
+        }
+
+        private void deleteGroup(String groupId) {
+            Integer id = dictionary.id(groupId);
+            if (id == null) {
+                return;
+            }
+
+            ancestors(id).forEach((int parent) -> updateChildren(parent, bitmap -> bitmap.remove(id)));
+            updateLevel(depthOf(id), bitmap -> bitmap.remove(id));
+            if (parentOf(id) >= 0) {
+                changeFanOut(parentOf(id), -1);
+            }
+            changeFanOut(id, -fanOutById.getOrDefault(id, 0));
+            // remove this group's links
+            setParent(id, UNKNOWN);
+            childrenById.remove(id);
+        }
+
+        private void createGroup(String parentId, String groupId) {
+            int parent = dictionary.intern(parentId);
+            int id = dictionary.intern(groupId);
+            setParent(id, parent);
+            changeFanOut(parent, 1);
+
+            // add child to parent and all ancestors
+            RoaringBitmap ancestors = ancestors(id);
+            ancestors.forEach((int ancestor) -> updateChildren(ancestor, bitmap -> bitmap.add(id)));
+            updateLevel(ancestors.getCardinality(), bitmap -> bitmap.add(id));
+        }
+
+        private void moveGroup(String newParentId, String targetId) {
+            int newParent = dictionary.intern(newParentId);
+            int target = dictionary.intern(targetId);
+            RoaringBitmap moved = children(target).clone();
+            moved.add(target);
+
+            // remove target and its children from old parents
+            RoaringBitmap oldAncestors = ancestors(target);
+            oldAncestors.forEach((int parent) -> updateChildren(parent, bitmap -> bitmap.andNot(moved)));
+
+            // re-point target; its children inherit the new ancestors through the parent pointers
+            if (parentOf(target) >= 0) {
+                changeFanOut(parentOf(target), -1);
+            }
+            setParent(target, newParent);
+            changeFanOut(newParent, 1);
+
+            // add target and its children to new parents' children sets
+            RoaringBitmap newAncestors = ancestors(target);
+            newAncestors.forEach((int ancestor) -> updateChildren(ancestor, bitmap -> bitmap.or(moved)));
+
+            // the whole subtree shifts by the same number of levels
+            shiftLevels(moved, newAncestors.getCardinality() - oldAncestors.getCardinality());
+        }
+
+        private void shiftLevels(RoaringBitmap moved, int delta) {
+            if (delta == 0) {
+                return;
+            }
+
+            Map<Integer, RoaringBitmap> movedByDepth = new HashMap<>();
+            idsByDepth.forEach((depth, level) -> {
+                RoaringBitmap ids = RoaringBitmap.and(level, moved);
+                if (!ids.isEmpty()) {
+                    movedByDepth.put(depth, ids);
+                }
+            });
+            movedByDepth.forEach((depth, ids) -> updateLevel(depth, bitmap -> bitmap.andNot(ids)));
+            movedByDepth.forEach((depth, ids) -> updateLevel(depth + delta, bitmap -> bitmap.or(ids)));
+        }
     }
 }
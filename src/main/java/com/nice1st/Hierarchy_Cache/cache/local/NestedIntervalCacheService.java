@@ -0,0 +1,506 @@
+package com.nice1st.Hierarchy_Cache.cache.local;
+
+import com.nice1st.Hierarchy_Cache.cache.CacheService;
+import com.nice1st.Hierarchy_Cache.cache.ChildrenPage;
+import com.nice1st.Hierarchy_Cache.cache.HierarchyStats;
+import com.nice1st.Hierarchy_Cache.cache.HierarchyTree;
+import com.nice1st.Hierarchy_Cache.cache.SetOperation;
+import com.nice1st.Hierarchy_Cache.cache.SubtreeStats;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// every group owns a (pre, post) label pair and the labels of its descendants nest strictly inside it,
+// so "descendants of X" is one range scan over pre labels and "is A under B" is two comparisons.
+// labels are gapped longs: inserts take room from the gap at the parent's end and, once it runs out,
+// only the smallest ancestor subtree with enough room is relabeled
+public class NestedIntervalCacheService implements CacheService {
+
+    private static final String ROOT_GROUP = "ROOT_GROUP";
+
+    // widest gap handed out to a single insert, keeps room for the next siblings
+    private static final long MAX_SPACING = 1L << 16;
+    // relabel an ancestor only if it can spread its subtree at least this far apart
+    private static final long MIN_SPACING = 1L << 4;
+    // departed groups remembered for resuming page cursors
+    private static final int MAX_DEPARTED = 10_000;
+
+    private final Map<String, TenantIndex> indexByTenant = new ConcurrentHashMap<>();
+    private final Map<String, String> cursorByTenant = new ConcurrentHashMap<>();
+    private final Map<String, Long> highWaterMarkByTenant = new ConcurrentHashMap<>();
+
+    @Override
+    public String getRootGroup() {
+        return ROOT_GROUP;
+    }
+
+    @Override
+    public String getCursor(String tenantId) {
+        return cursorByTenant.getOrDefault(tenantId, "0");
+    }
+
+    @Override
+    public void updateCursor(String tenantId, Long tsid) {
+        cursorByTenant.put(tenantId, String.valueOf(tsid));
+    }
+
+    @Override
+    public Optional<String> getHighWaterMark(String tenantId) {
+        return Optional.ofNullable(highWaterMarkByTenant.get(tenantId)).map(String::valueOf);
+    }
+
+    @Override
+    public void advanceHighWaterMark(String tenantId, Long tsid) {
+        highWaterMarkByTenant.merge(tenantId, tsid, Math::max);
+    }
+
+    @Override
+    public void initialize(String tenantId, HierarchyTree tree) {
+        TenantIndex index = new TenantIndex();
+        index.attach(index.root, tree, tree.root());
+        index.relabel(index.root, null, 0);
+        indexByTenant.put(tenantId, index);
+    }
+
+    @Override
+    public void deleteGroup(String tenantId, String groupId) {
+        index(tenantId).write(index -> index.delete(groupId));
+    }
+
+    @Override
+    public void createGroup(String tenantId, String parentId, String id) {
+        index(tenantId).write(index -> index.move(parentId, id));
+    }
+
+    @Override
+    public void moveGroup(String tenantId, String newParentId, String targetId) {
+        index(tenantId).write(index -> index.move(newParentId, targetId));
+    }
+
+    @Override
+    public Set<String> getParents(String tenantId, String groupId) {
+        return index(tenantId).read(index -> index.ancestors(groupId));
+    }
+
+    @Override
+    public Set<String> getChildren(String tenantId, String groupId) {
+        return index(tenantId).read(index -> index.descendants(groupId));
+    }
+
+    @Override
+    public Set<String> getChildren(String tenantId, String groupId, int maxDepth) {
+        return index(tenantId).read(index -> index.descendants(groupId, maxDepth));
+    }
+
+    @Override
+    public List<String> getPath(String tenantId, String groupId) {
+        return index(tenantId).read(index -> index.path(groupId));
+    }
+
+    @Override
+    public String pageSource() {
+        return "interval";
+    }
+
+    @Override
+    public ChildrenPage getChildren(String tenantId, String groupId, String cursor, int limit) {
+        return index(tenantId).read(index -> index.page(groupId, cursor, limit));
+    }
+
+    @Override
+    public Set<String> combineChildren(String tenantId, List<String> groupIds, SetOperation operation) {
+        return index(tenantId).read(index -> operation.apply(groupIds.stream().map(index::descendants).toList()));
+    }
+
+    @Override
+    public Set<String> filterChildren(String tenantId, String groupId, Collection<String> candidateIds) {
+        return index(tenantId).read(index -> index.filter(groupId, candidateIds));
+    }
+
+    // labels carry neither depth nor counts, so stats walk the child lists
+    @Override
+    public SubtreeStats getSubtreeStats(String tenantId, String groupId) {
+        return index(tenantId).read(index -> index.subtreeStats(groupId));
+    }
+
+    @Override
+    public HierarchyStats getStats(String tenantId) {
+        return index(tenantId).read(TenantIndex::stats);
+    }
+
+    @Override
+    public boolean hasCached(String tenantId, String groupId) {
+        return index(tenantId).read(index -> index.nodes.containsKey(groupId));
+    }
+
+    public boolean isUnder(String tenantId, String groupId, String ancestorId) {
+        return index(tenantId).read(index -> index.isUnder(groupId, ancestorId));
+    }
+
+    private TenantIndex index(String tenantId) {
+        return indexByTenant.computeIfAbsent(tenantId, k -> {
+            TenantIndex index = new TenantIndex();
+            index.relabel(index.root, null, 0);
+            return index;
+        });
+    }
+
+    private static class Node {
+
+        private final String id;
+        private Node parent;
+        private final List<Node> children = new ArrayList<>();
+        private long pre;
+        private long post;
+
+        private Node(String id) {
+            this.id = id;
+        }
+
+        private boolean contains(Node other) {
+            return pre < other.pre && other.post < post;
+        }
+    }
+
+    private static class TenantIndex {
+
+        private final StampedLock lock = new StampedLock();
+
+        // virtual parent of the tenant roots, owns the whole label space
+        private final Node root = new Node(ROOT_GROUP);
+        private final Map<String, Node> nodes = new HashMap<>();
+        private final NavigableMap<Long, Node> nodeByPre = new TreeMap<>();
+        // moved or deleted group -> the group that preceded it, bounded since only in-flight page cursors need it
+        private final Map<String, String> precedingByDeparted = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > MAX_DEPARTED;
+            }
+        };
+
+        private TenantIndex() {
+            root.pre = 0;
+            root.post = Long.MAX_VALUE / 2;
+        }
+
+        private <T> T read(Function<TenantIndex, T> query) {
+            long stamp = lock.readLock();
+            try {
+                return query.apply(this);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private void write(Consumer<TenantIndex> mutation) {
+            long stamp = lock.writeLock();
+            try {
+                mutation.accept(this);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private void attach(Node parent, HierarchyTree tree, int treeNode) {
+            for (int i = 0; i < tree.childCount(treeNode); i++) {
+                int child = tree.child(treeNode, i);
+                Node node = new Node(tree.id(child));
+                node.parent = parent;
+                parent.children.add(node);
+                nodes.put(node.id, node);
+                attach(node, tree, child);
+            }
+        }
+
+        private Set<String> descendants(String groupId) {
+            Node node = nodes.get(groupId);
+            if (node == null) {
+                return Collections.emptySet();
+            }
+
+            Set<String> ids = new LinkedHashSet<>();
+            for (Node descendant : nodeByPre.subMap(node.pre, false, node.post, false).values()) {
+                ids.add(descendant.id);
+            }
+            return Collections.unmodifiableSet(ids);
+        }
+
+        // labels carry no depth, so a depth-limited read walks the child lists instead of the label range
+        private Set<String> descendants(String groupId, int maxDepth) {
+            Node node = nodes.get(groupId);
+            if (node == null) {
+                return Collections.emptySet();
+            }
+
+            Set<String> ids = new LinkedHashSet<>();
+            collect(node, maxDepth, ids);
+            return Collections.unmodifiableSet(ids);
+        }
+
+        private void collect(Node node, int maxDepth, Set<String> ids) {
+            if (maxDepth < 1) {
+                return;
+            }
+            for (Node child : node.children) {
+                ids.add(child.id);
+                collect(child, maxDepth - 1, ids);
+            }
+        }
+
+        private SubtreeStats subtreeStats(String groupId) {
+            Node node = nodes.get(groupId);
+            if (node == null) {
+                return new SubtreeStats(0, 0);
+            }
+
+            Map<Integer, Long> groupsByDepth = new HashMap<>();
+            count(node, 0, groupsByDepth, new HashMap<>());
+            groupsByDepth.remove(0);
+            long descendants = groupsByDepth.values().stream().mapToLong(Long::longValue).sum();
+            return new SubtreeStats(descendants, groupsByDepth.keySet().stream().max(Integer::compare).orElse(0));
+        }
+
+        private HierarchyStats stats() {
+            Map<Integer, Long> groupsByDepth = new HashMap<>();
+            Map<Integer, Long> groupsByFanOut = new HashMap<>();
+            for (Node top : root.children) {
+                count(top, 0, groupsByDepth, groupsByFanOut);
+            }
+            return HierarchyStats.of(groupsByDepth, groupsByFanOut);
+        }
+
+        private void count(Node node, int depth, Map<Integer, Long> groupsByDepth, Map<Integer, Long> groupsByFanOut) {
+            groupsByDepth.merge(depth, 1L, Long::sum);
+            if (!node.children.isEmpty()) {
+                groupsByFanOut.merge(node.children.size(), 1L, Long::sum);
+            }
+            for (Node child : node.children) {
+                count(child, depth + 1, groupsByDepth, groupsByFanOut);
+            }
+        }
+
+        private List<String> path(String groupId) {
+            Node node = nodes.get(groupId);
+            if (node == null) {
+                return Collections.emptyList();
+            }
+
+            List<String> path = new ArrayList<>();
+            for (Node current = node; current != root; current = current.parent) {
+                path.add(current.id);
+            }
+            return Collections.unmodifiableList(path.reversed());
+        }
+
+        // the cursor is the last returned group; relabels keep the order, so resuming from its current label is safe.
+        // a cursor group that was deleted or left the subtree resumes after the group that preceded it
+        private ChildrenPage page(String groupId, String cursor, int limit) {
+            Node node = nodes.get(groupId);
+            if (node == null) {
+                return ChildrenPage.empty();
+            }
+            Node last = cursor != null ? resumePoint(node, cursor) : node;
+            if (last == null) {
+                return ChildrenPage.empty();
+            }
+
+            List<String> ids = new ArrayList<>();
+            Iterator<Node> iterator = nodeByPre.subMap(last.pre, false, node.post, false).values().iterator();
+            while (iterator.hasNext() && ids.size() < limit) {
+                ids.add(iterator.next().id);
+            }
+            return new ChildrenPage(ids, iterator.hasNext() ? ids.getLast() : null);
+        }
+
+        // follows the departure chain until it reaches a group still inside the subtree
+        private Node resumePoint(Node node, String cursor) {
+            String id = cursor;
+            for (int hops = 0; id != null && hops <= precedingByDeparted.size(); hops++) {
+                Node last = nodes.get(id);
+                if (last != null && (last == node || node.contains(last))) {
+                    return last;
+                }
+                id = precedingByDeparted.get(id);
+            }
+            return null;
+        }
+
+        // remembers the group right before `node` in pre order, so a page cursor on it can still resume there
+        private void depart(Node node) {
+            Map.Entry<Long, Node> preceding = nodeByPre.lowerEntry(node.pre);
+            if (preceding != null) {
+                precedingByDeparted.put(node.id, preceding.getValue().id);
+            }
+        }
+
+        private Set<String> ancestors(String groupId) {
+            Node node = nodes.get(groupId);
+            if (node == null) {
+                return Collections.emptySet();
+            }
+
+            Set<String> ids = new LinkedHashSet<>();
+            for (Node parent = node.parent; parent != root; parent = parent.parent) {
+                ids.add(parent.id);
+            }
+            return Collections.unmodifiableSet(ids);
+        }
+
+        // two label comparisons per candidate
+        private Set<String> filter(String groupId, Collection<String> candidateIds) {
+            Node ancestor = nodes.get(groupId);
+            if (ancestor == null) {
+                return Collections.emptySet();
+            }
+
+            Set<String> ids = new LinkedHashSet<>();
+            for (String candidateId : candidateIds) {
+                Node node = nodes.get(candidateId);
+                if (node != null && ancestor.contains(node)) {
+                    ids.add(candidateId);
+                }
+            }
+            return ids;
+        }
+
+        private boolean isUnder(String groupId, String ancestorId) {
+            Node node = nodes.get(groupId);
+            Node ancestor = nodes.get(ancestorId);
+            return node != null && ancestor != null && ancestor.contains(node);
+        }
+
+        private Node getOrCreate(String id) {
+            Node node = nodes.get(id);
+            if (node == null) {
+                node = new Node(id);
+                nodes.put(id, node);
+                insert(root, node, 1);
+            }
+            return node;
+        }
+
+        private void move(String parentId, String id) {
+            Node parent = getOrCreate(parentId);
+            Node node = nodes.get(id);
+            if (node == null) {
+                node = new Node(id);
+                nodes.put(id, node);
+                insert(parent, node, 1);
+                return;
+            }
+
+            if (node == parent || node.contains(parent)) {
+                throw new IllegalArgumentException("Cannot move " + id + " under its own descendant " + parentId);
+            }
+            depart(node);
+            node.parent.children.remove(node);
+            insert(parent, node, unlabel(node));
+        }
+
+        private void delete(String groupId) {
+            Node node = nodes.remove(groupId);
+            if (node == null) {
+                return;
+            }
+
+            depart(node);
+            // children keep their labels, which already nest inside the parent's range
+            List<Node> siblings = node.parent.children;
+            int index = siblings.indexOf(node);
+            siblings.remove(index);
+            siblings.addAll(index, node.children);
+            node.children.forEach(child -> child.parent = node.parent);
+            nodeByPre.remove(node.pre);
+        }
+
+        // places a detached subtree of `size` groups after the parent's last child
+        private void insert(Node parent, Node subtree, int size) {
+            long spacing = endGap(parent) / (2L * size + 1);
+            if (spacing < 1) {
+                relabelFor(parent, size);
+                spacing = endGap(parent) / (2L * size + 1);
+            }
+
+            long next = parent.children.isEmpty() ? parent.pre : parent.children.getLast().post;
+            parent.children.add(subtree);
+            subtree.parent = parent;
+            label(subtree, next, Math.min(spacing, MAX_SPACING));
+        }
+
+        private long endGap(Node parent) {
+            long last = parent.children.isEmpty() ? parent.pre : parent.children.getLast().post;
+            return parent.post - last;
+        }
+
+        // finds the lowest ancestor that can evenly spread its subtree plus `reserve` incoming groups
+        private void relabelFor(Node parent, int reserve) {
+            Node ancestor = parent;
+            while (ancestor != root) {
+                long labels = 2L * (size(ancestor) - 1) + 2L * reserve;
+                if ((ancestor.post - ancestor.pre) / (labels + 1) >= MIN_SPACING) {
+                    break;
+                }
+                ancestor = ancestor.parent;
+            }
+            relabel(ancestor, parent, reserve);
+        }
+
+        // rewrites the labels strictly inside `ancestor`, leaving room for `reserve` groups at the end of `gapOwner`
+        private void relabel(Node ancestor, Node gapOwner, int reserve) {
+            long labels = 2L * (size(ancestor) - 1) + 2L * reserve;
+            long spacing = (ancestor.post - ancestor.pre) / (labels + 1);
+            for (Node child : ancestor.children) {
+                unlabel(child);
+            }
+
+            long next = ancestor.pre;
+            for (Node child : ancestor.children) {
+                next = relabel(child, next, spacing, gapOwner, reserve);
+            }
+        }
+
+        private long relabel(Node node, long next, long spacing, Node gapOwner, int reserve) {
+            node.pre = next += spacing;
+            nodeByPre.put(node.pre, node);
+            for (Node child : node.children) {
+                next = relabel(child, next, spacing, gapOwner, reserve);
+            }
+            if (node == gapOwner) {
+                next += 2L * reserve * spacing;
+            }
+            node.post = next += spacing;
+            return next;
+        }
+
+        private long label(Node node, long next, long spacing) {
+            node.pre = next += spacing;
+            nodeByPre.put(node.pre, node);
+            for (Node child : node.children) {
+                next = label(child, next, spacing);
+            }
+            node.post = next += spacing;
+            return next;
+        }
+
+        // removes the pre labels of the subtree and returns its size
+        private int unlabel(Node node) {
+            nodeByPre.remove(node.pre);
+            int size = 1;
+            for (Node child : node.children) {
+                size += unlabel(child);
+            }
+            return size;
+        }
+
+        private int size(Node node) {
+            int size = 1;
+            for (Node child : node.children) {
+                size += size(child);
+            }
+            return size;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.nice1st.Hierarchy_Cache.cache.redis;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+// id-encoding=integer 에서 쓰는 value serializer
+// 사전이 발급한 정수 id 는 따옴표 없는 숫자로 써서 Redis 가 listpack/intset 안에 정수로 담게 하고, 나머지는 JSON 그대로 둔다
+// Lua 가 cjson.decode 로 읽으므로 double 로 정확히 표현되고 지수 표기가 되지 않는 14자리까지만 숫자로 쓴다(TSID 커서는 JSON)
+public class GroupIdRedisSerializer implements RedisSerializer<Object> {
+
+    private static final int MAX_DIGITS = 14;
+
+    private final GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+
+    @Override
+    public byte[] serialize(Object value) {
+        if (value instanceof String string && isNumber(string)) {
+            return string.getBytes(StandardCharsets.US_ASCII);
+        }
+        return json.serialize(value);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) {
+        if (bytes != null && isNumber(bytes)) {
+            return new String(bytes, StandardCharsets.US_ASCII);
+        }
+        return json.deserialize(bytes);
+    }
+
+    static boolean isNumber(String value) {
+        return isNumber(value.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    // 앞자리 0 이 없는 양의 정수만
+    private static boolean isNumber(byte[] bytes) {
+        if (bytes.length == 0 || bytes.length > MAX_DIGITS || bytes[0] == '0') {
+            return false;
+        }
+        for (byte b : bytes) {
+            if (b < '0' || b > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
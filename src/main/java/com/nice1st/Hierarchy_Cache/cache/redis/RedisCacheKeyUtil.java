@@ -6,8 +6,42 @@ class RedisCacheKeyUtil {
         return getPrefixKey(tenantId) + ":cursor";
     }
 
+    static String getHighWaterMarkKey(String tenantId) {
+        return getPrefixKey(tenantId) + ":hwm";
+    }
+
+    // depth:{깊이} -> 그룹 수, fanout:{직속 자식 수} -> 그룹 수
+    static String getStatsKey(String tenantId) {
+        return getPrefixKey(tenantId) + ":stats";
+    }
+
+    // 테넌트 트리 전체의 바이너리 스냅샷, storage=snapshot 에서만 쓴다
+    static String getSnapshotKey(String tenantId) {
+        return getPrefixKey(tenantId) + ":snapshot";
+    }
+
+    // id-encoding=integer 의 사전, group id -> 정수 와 그 역방향
+    static String getIdsKey(String tenantId) {
+        return getPrefixKey(tenantId) + ":ids";
+    }
+
+    static String getNamesKey(String tenantId) {
+        return getPrefixKey(tenantId) + ":names";
+    }
+
+    static String getIdSequenceKey(String tenantId) {
+        return getPrefixKey(tenantId) + ":ids:seq";
+    }
+
+    // 사전이 새로 만들어질 때마다 바뀌는 값, 인스턴스는 로컬 사전을 이 값으로 태깅한다
+    static String getIdGenerationKey(String tenantId) {
+        return getPrefixKey(tenantId) + ":ids:generation";
+    }
+
+    // 테넌트를 hash tag 로 감싸 한 테넌트의 키가 Redis Cluster 에서 같은 슬롯에 모이게 한다
+    // 스크립트가 조상/자식 키를 prefix 로 만들어 쓰고, ZUNION 등이 여러 그룹 키를 한 번에 읽기 때문이다
     static String getPrefixKey(String tenantId) {
-        return tenantId + ":group";
+        return "{" + tenantId + "}:group";
     }
 
     static String getChildrenKey(String tenantId, String groupId) {
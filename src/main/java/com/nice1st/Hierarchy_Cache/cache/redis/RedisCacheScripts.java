@@ -0,0 +1,53 @@
+package com.nice1st.Hierarchy_Cache.cache.redis;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.util.StreamUtils;
+
+class RedisCacheScripts {
+
+    static final RedisScript<Long> CREATE_GROUP = mutation("redis/create-group.lua");
+
+    static final RedisScript<Long> MOVE_GROUP = mutation("redis/move-group.lua");
+
+    static final RedisScript<Long> DELETE_GROUP = mutation("redis/delete-group.lua");
+
+    static final RedisScript<Long> ADVANCE_HIGH_WATER_MARK = load("redis/advance-high-water-mark.lua");
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static final RedisScript<List<String>> SCAN_CHILDREN = new DefaultRedisScript(read("redis/scan-children.lua"), List.class);
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static final RedisScript<List<String>> INTERN_GROUPS = new DefaultRedisScript(read("redis/intern-groups.lua"), List.class);
+
+    static final RedisScript<Long> RELEASE_LOCK = load("redis/release-lock.lua");
+
+    static final RedisScript<Long> RENEW_LOCK = load("redis/renew-lock.lua");
+
+    static List<RedisScript<?>> all() {
+        return List.of(CREATE_GROUP, MOVE_GROUP, DELETE_GROUP, ADVANCE_HIGH_WATER_MARK, SCAN_CHILDREN, INTERN_GROUPS,
+          RELEASE_LOCK, RENEW_LOCK);
+    }
+
+    private static RedisScript<Long> mutation(String path) {
+        return new DefaultRedisScript<>(read("redis/common.lua") + read(path), Long.class);
+    }
+
+    private static RedisScript<Long> load(String path) {
+        return new DefaultRedisScript<>(read(path), Long.class);
+    }
+
+    private static String read(String path) {
+        try {
+            return StreamUtils.copyToString(new ClassPathResource(path).getInputStream(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -2,30 +2,52 @@ package com.nice1st.Hierarchy_Cache.cache.redis;
 
 import static com.nice1st.Hierarchy_Cache.cache.redis.RedisCacheKeyUtil.*;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.core.script.RedisScript;
 
 import com.nice1st.Hierarchy_Cache.cache.CacheService;
-import com.nice1st.Hierarchy_Cache.domain.HierarchyGroup;
+import com.nice1st.Hierarchy_Cache.cache.ChildrenPage;
+import com.nice1st.Hierarchy_Cache.cache.HierarchyStats;
+import com.nice1st.Hierarchy_Cache.cache.HierarchyTree;
+import com.nice1st.Hierarchy_Cache.cache.InvalidCursorException;
+import com.nice1st.Hierarchy_Cache.cache.SetOperation;
+import com.nice1st.Hierarchy_Cache.cache.SubtreeStats;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+// 그룹마다 조상(parents)과 하위(children)를 sorted set 으로 두고, score 는 그 그룹 기준 상대 깊이다
+// 직속 자식은 children 의 score 1, 부모는 parents 의 score 1 이라 깊이 제한 조회와 경로가 range 한 번이다
+@Slf4j
 @RequiredArgsConstructor
 public class RedisCacheService implements CacheService {
 
     private final RedisTemplate<String, String> redisTemplate;
 
+    private final int bulkLoadChunkSize;
+
     private final String ROOT_GROUP = "ROOT_GROUP";
 
     @Override
@@ -46,127 +68,264 @@ public class RedisCacheService implements CacheService {
     }
 
     @Override
-    public void initialize(String tenantId, Map<String, List<HierarchyGroup>> groupByParentId) {
-        Map<String, VO> voMap = new HashMap<>(20_000);
-        groupByParentId.get(ROOT_GROUP).forEach(rootGroup -> {
-            VO rootVO = VO.builder().id(rootGroup.getId()).build();
-            voMap.put(rootGroup.getId(), rootVO);
-            recursiveVOs(rootVO, groupByParentId, voMap);
-        });
+    public Optional<String> getHighWaterMark(String tenantId) {
+        return Optional.ofNullable(redisTemplate.opsForValue().get(getHighWaterMarkKey(tenantId)));
+    }
+
+    @Override
+    public void advanceHighWaterMark(String tenantId, Long tsid) {
+        redisTemplate.execute(RedisCacheScripts.ADVANCE_HIGH_WATER_MARK,
+          List.of(getHighWaterMarkKey(tenantId)), String.valueOf(tsid));
+    }
+
+    @Override
+    public void initialize(String tenantId, HierarchyTree tree) {
+        Map<String, VO> voMap = new HashMap<>(tree.size() * 4 / 3 + 1);
+        for (int i = 0; i < tree.childCount(tree.root()); i++) {
+            int root = tree.child(tree.root(), i);
+            VO rootVO = VO.builder().id(tree.id(root)).build();
+            voMap.put(rootVO.getId(), rootVO);
+            recursiveVOs(rootVO, tree, root, voMap);
+        }
+
+        // 이후 갱신은 Lua 스크립트가 분포를 증감한다
+        Map<String, String> stats = new HashMap<>();
+        tree.groupsByDepth().forEach((depth, groups) -> stats.put("depth:" + depth, String.valueOf(groups)));
+        tree.groupsByFanOut().forEach((fanOut, groups) -> stats.put("fanout:" + fanOut, String.valueOf(groups)));
+        redisTemplate.delete(getStatsKey(tenantId));
+        if (!stats.isEmpty()) {
+            redisTemplate.opsForHash().putAll(getStatsKey(tenantId), stats);
+        }
 
-        for (VO vo : voMap.values()) {
-            delete(tenantId, vo.getId());
-            add(tenantId, vo.getId(), vo.getParents(), vo.getChildren());
+        // 그룹마다 DEL/ZADD 를 왕복하지 않고 chunk 단위 pipeline 으로 적재
+        List<VO> vos = new ArrayList<>(voMap.values());
+        for (int from = 0; from < vos.size(); from += bulkLoadChunkSize) {
+            List<VO> chunk = vos.subList(from, Math.min(from + bulkLoadChunkSize, vos.size()));
+            redisTemplate.executePipelined(bulkLoad(tenantId, chunk));
+            log.info("[{}] cache initialize {}/{}", tenantId, from + chunk.size(), vos.size());
         }
     }
 
-    private void recursiveVOs(VO parentVO, Map<String, List<HierarchyGroup>> groupByParentId, Map<String, VO> voMap) {
-        groupByParentId.getOrDefault(parentVO.getId(), Collections.emptyList())
-          .forEach(child -> {
-              VO vo = VO.fromParent(parentVO, child.getId());
-              voMap.put(child.getId(), vo);
-              parentVO.addChild(child.getId(), voMap::get);
-              recursiveVOs(vo, groupByParentId, voMap);
-          });
+    private SessionCallback<Object> bulkLoad(String tenantId, List<VO> chunk) {
+        return new SessionCallback<>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                for (VO vo : chunk) {
+                    ops.unlink(List.of(getParentsKey(tenantId, vo.getId()), getChildrenKey(tenantId, vo.getId())));
+                    add(ops, tenantId, vo.getId(), vo.getParents(), vo.getChildren());
+                }
+                return null;
+            }
+        };
+    }
+
+    private void recursiveVOs(VO parentVO, HierarchyTree tree, int parent, Map<String, VO> voMap) {
+        for (int i = 0; i < tree.childCount(parent); i++) {
+            int child = tree.child(parent, i);
+            VO vo = VO.fromParent(parentVO, tree.id(child));
+            voMap.put(vo.getId(), vo);
+            parentVO.addChild(vo.getId(), voMap::get);
+            recursiveVOs(vo, tree, child, voMap);
+        }
     }
 
-    private void add(String tenantId, String groupId, Set<String> parents, Set<String> children) {
+    private void add(RedisOperations<String, String> ops, String tenantId, String groupId,
+      Map<String, Integer> parents, Map<String, Integer> children) {
         if (!parents.isEmpty()) {
-            redisTemplate.opsForSet().add(getParentsKey(tenantId, groupId), parents.toArray(new String[0]));
+            ops.opsForZSet().add(getParentsKey(tenantId, groupId), tuples(parents));
         }
 
         if (!children.isEmpty()) {
-            redisTemplate.opsForSet().add(getChildrenKey(tenantId, groupId), children.toArray(new String[0]));
+            ops.opsForZSet().add(getChildrenKey(tenantId, groupId), tuples(children));
         }
     }
 
-    private void removeParents(String tenantId, String parentId, Set<String> parents) {
-        redisTemplate.opsForSet().remove(getParentsKey(tenantId, parentId), parents.toArray(new Object[0]));
+    static Set<TypedTuple<String>> tuples(Map<String, Integer> depths) {
+        return depths.entrySet().stream()
+          .map(entry -> TypedTuple.of(entry.getKey(), entry.getValue().doubleValue()))
+          .collect(Collectors.toSet());
     }
 
-    private void removeChildren(String tenantId, String parentId, Set<String> children) {
-        redisTemplate.opsForSet().remove(getChildrenKey(tenantId, parentId), children.toArray(new Object[0]));
+    public void loadScripts() {
+        redisTemplate.execute((RedisCallback<Void>) connection -> {
+            for (RedisScript<?> script : RedisCacheScripts.all()) {
+                connection.scriptingCommands().scriptLoad(script.getScriptAsString().getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
     }
 
-    private void delete(String tenantId, String groupId) {
-        deleteParents(tenantId, groupId);
-        deleteChildren(tenantId, groupId);
+    @Override
+    public void deleteGroup(String tenantId, String groupId) {
+        redisTemplate.execute(RedisCacheScripts.DELETE_GROUP,
+          List.of(getParentsKey(tenantId, groupId), getChildrenKey(tenantId, groupId), getStatsKey(tenantId)),
+          getPrefixKey(tenantId), groupId);
     }
 
-    private void deleteParents(String tenantId, String groupId) {
-        redisTemplate.delete(getParentsKey(tenantId, groupId));
+    @Override
+    public void createGroup(String tenantId, String parentId, String id) {
+        redisTemplate.execute(RedisCacheScripts.CREATE_GROUP,
+          List.of(getParentsKey(tenantId, parentId), getChildrenKey(tenantId, parentId), getParentsKey(tenantId, id),
+            getStatsKey(tenantId)),
+          getPrefixKey(tenantId), parentId, id);
     }
 
-    private void deleteChildren(String tenantId, String groupId) {
-        redisTemplate.delete(getChildrenKey(tenantId, groupId));
+    @Override
+    public void moveGroup(String tenantId, String newParentId, String targetId) {
+        redisTemplate.execute(RedisCacheScripts.MOVE_GROUP,
+          List.of(getParentsKey(tenantId, targetId), getChildrenKey(tenantId, targetId),
+            getParentsKey(tenantId, newParentId), getStatsKey(tenantId)),
+          getPrefixKey(tenantId), newParentId, targetId);
     }
 
-    private VO find(String tenantId, String groupId) {
-        Set<String> parents = Optional.ofNullable(redisTemplate.opsForSet().members(getParentsKey(tenantId, groupId)))
-          .orElse(Collections.emptySet());
-        Set<String> children = Optional.ofNullable(redisTemplate.opsForSet().members(getChildrenKey(tenantId, groupId)))
-          .orElse(Collections.emptySet());
+    // 가까운 조상 순
+    @Override
+    public Set<String> getParents(String tenantId, String groupId) {
+        return redisTemplate.opsForZSet().range(getParentsKey(tenantId, groupId), 0, -1);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, Set<String>> getParents(String tenantId, Collection<String> groupIds) {
+        List<String> ids = new ArrayList<>(groupIds);
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                ids.forEach(id -> ops.opsForZSet().range(getParentsKey(tenantId, id), 0, -1));
+                return null;
+            }
+        });
+
+        Map<String, Set<String>> parentsByGroup = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            parentsByGroup.put(ids.get(i), (Set<String>) results.get(i));
+        }
+        return parentsByGroup;
+    }
 
-        return VO.builder().id(groupId).parents(parents).children(children).build();
+    @Override
+    public Set<String> getChildren(String tenantId, String groupId) {
+        return redisTemplate.opsForZSet().range(getChildrenKey(tenantId, groupId), 0, -1);
     }
 
     @Override
-    public void deleteGroup(String tenantId, String groupId) {
-        VO vo = find(tenantId, groupId);
-        vo.getParents().forEach(parentId -> removeChildren(tenantId, parentId, Collections.singleton(groupId)));
-        delete(tenantId, groupId);
+    public Set<String> getChildren(String tenantId, String groupId, int maxDepth) {
+        return redisTemplate.opsForZSet().rangeByScore(getChildrenKey(tenantId, groupId), 1, maxDepth);
     }
 
+    // 조상을 먼 순서로 읽어 자신을 붙인다, 조상이 없으면 최상위 그룹인지 캐시에 없는 그룹인지 확인
     @Override
-    public void createGroup(String tenantId, String parentId, String id) {
-        VO parent = find(tenantId, parentId);
-        VO insertVO = VO.fromParent(parent, id);
-        deleteParents(tenantId, id);
-        add(tenantId, id, insertVO.getParents(), parent.getChildren());
-        add(tenantId, parent.getId(), Collections.emptySet(), Collections.singleton(id));
-        for (String grandparentId : parent.getParents()) {
-            add(tenantId, grandparentId, Collections.emptySet(), Collections.singleton(id));
+    public List<String> getPath(String tenantId, String groupId) {
+        Set<String> parents = redisTemplate.opsForZSet().reverseRange(getParentsKey(tenantId, groupId), 0, -1);
+        if ((parents == null || parents.isEmpty()) && !hasCached(tenantId, groupId)) {
+            return Collections.emptyList();
         }
+
+        List<String> path = new ArrayList<>(Optional.ofNullable(parents).orElse(Collections.emptySet()));
+        path.add(groupId);
+        return path;
     }
 
     @Override
-    public void moveGroup(String tenantId, String newParentId, String targetId) {
-        VO target = find(tenantId, targetId);
-        VO parent = find(tenantId, newParentId);
-        // 이전 parents 의 children 제거
-        for (String parentId : target.getParents()) {
-            removeChildren(tenantId, parentId, Collections.singleton(target.getId()));
-            removeChildren(tenantId, parentId, target.getChildren());
+    public String pageSource() {
+        return "redis";
+    }
+
+    // ZSCAN 은 COUNT 가 힌트라 한 번에 limit 보다 많이 돌려줄 수 있다(listpack 이면 전체)
+    // 한 번의 결과를 멤버 순으로 정렬해 limit 개만 돌려주고, 남은 것은 커서에 "그 ZSCAN 커서:다음 커서:마지막 멤버" 로 남겨
+    // 같은 ZSCAN 을 다시 읽어 마지막 멤버 뒤부터 이어간다. 그 사이 리사이즈로 다음 커서가 바뀌었으면 건너뛰지 않는다
+    // SCAN 보장대로 최소 한 번 전달이며, 리해시가 끼면 페이지 사이에 중복이 있을 수 있다(한 페이지 안에서는 없다)
+    @Override
+    public ChildrenPage getChildren(String tenantId, String groupId, String cursor, int limit) {
+        String[] position = cursor != null ? cursor.split(":", 3) : new String[] {"0"};
+        if (!position[0].chars().allMatch(Character::isDigit) || position[0].isEmpty()
+          || (position.length != 1 && position.length != 3)) {
+            throw new InvalidCursorException("Malformed cursor: " + cursor);
         }
-        // parents 제거
-        removeParents(tenantId, targetId, target.getParents());
-        // children 의 parents 제거
-        for (String childId : target.getChildren()) {
-            removeParents(tenantId, childId, target.getParents());
+
+        List<String> reply = redisTemplate.execute(RedisCacheScripts.SCAN_CHILDREN,
+          List.of(getChildrenKey(tenantId, groupId)), position[0], limit);
+        String nextCursor = reply.getFirst();
+        NavigableSet<String> members = new TreeSet<>(reply.subList(1, reply.size()));
+        if (position.length == 3 && position[1].equals(nextCursor)) {
+            members = members.tailSet(position[2], false);
         }
-        // 객체 부모 변경
-        target.changeParent(parent);
-        // 현 parents 추가
-        add(tenantId, targetId, target.getParents(), Collections.emptySet());
-        // children 에 parents 추가
-        for (String childId : target.getChildren()) {
-            add(tenantId, childId, target.getParents(), Collections.emptySet());
+
+        if (members.size() > limit) {
+            List<String> ids = members.stream().limit(limit).toList();
+            return new ChildrenPage(ids, position[0] + ":" + nextCursor + ":" + ids.getLast());
         }
-        // 현 parents 에 children 추가
-        for (String parentId : target.getParents()) {
-            add(tenantId, parentId, Collections.emptySet(), Collections.singleton(target.getId()));
-            add(tenantId, parentId, Collections.emptySet(), target.getChildren());
+        return new ChildrenPage(List.copyOf(members), "0".equals(nextCursor) ? null : nextCursor);
+    }
+
+    // 하위 집합을 클라이언트로 옮기지 않고 ZUNION/ZINTER/ZDIFF 한 번으로 계산한다
+    @Override
+    public Set<String> combineChildren(String tenantId, List<String> groupIds, SetOperation operation) {
+        List<String> keys = groupIds.stream().map(groupId -> getChildrenKey(tenantId, groupId)).toList();
+        String first = keys.getFirst();
+        List<String> others = keys.subList(1, keys.size());
+        Set<String> ids = switch (operation) {
+            case UNION -> redisTemplate.opsForZSet().union(first, others);
+            case INTERSECTION -> redisTemplate.opsForZSet().intersect(first, others);
+            case DIFFERENCE -> redisTemplate.opsForZSet().difference(first, others);
+        };
+        return Optional.ofNullable(ids).orElse(Collections.emptySet());
+    }
+
+    // 후보 전체를 ZMSCORE 한 번으로 확인한다, score 가 있으면 하위
+    @Override
+    public Set<String> filterChildren(String tenantId, String groupId, Collection<String> candidateIds) {
+        if (candidateIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        List<String> candidates = new ArrayList<>(candidateIds);
+        List<Double> depths = redisTemplate.opsForZSet().score(getChildrenKey(tenantId, groupId), candidates.toArray());
+        Set<String> ids = new LinkedHashSet<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            if (depths.get(i) != null) {
+                ids.add(candidates.get(i));
+            }
         }
+        return ids;
     }
 
+    // ZCARD 와 가장 깊은 하위의 score 를 한 번의 pipeline 으로 읽는다
     @Override
-    public Set<String> getParents(String tenantId, String groupId) {
-        return redisTemplate.opsForSet().members(getParentsKey(tenantId, groupId));
+    @SuppressWarnings("unchecked")
+    public SubtreeStats getSubtreeStats(String tenantId, String groupId) {
+        String childrenKey = getChildrenKey(tenantId, groupId);
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                ops.opsForZSet().zCard(childrenKey);
+                ops.opsForZSet().reverseRangeWithScores(childrenKey, 0, 0);
+                return null;
+            }
+        });
+
+        Set<TypedTuple<String>> deepest = (Set<TypedTuple<String>>) results.get(1);
+        int height = deepest.isEmpty() ? 0 : deepest.iterator().next().getScore().intValue();
+        return new SubtreeStats((Long) results.getFirst(), height);
     }
 
     @Override
-    public Set<String> getChildren(String tenantId, String groupId) {
-        return redisTemplate.opsForSet().members(getChildrenKey(tenantId, groupId));
+    public HierarchyStats getStats(String tenantId) {
+        Map<Integer, Long> groupsByDepth = new HashMap<>();
+        Map<Integer, Long> groupsByFanOut = new HashMap<>();
+        redisTemplate.<String, String>opsForHash().entries(getStatsKey(tenantId)).forEach((field, groups) -> {
+            int separator = field.indexOf(':');
+            int bucket = Integer.parseInt(field.substring(separator + 1));
+            Map<Integer, Long> distribution = field.startsWith("depth") ? groupsByDepth : groupsByFanOut;
+            distribution.put(bucket, Long.parseLong(groups));
+        });
+        return HierarchyStats.of(groupsByDepth, groupsByFanOut);
     }
 
     @Override
@@ -182,30 +341,24 @@ public class RedisCacheService implements CacheService {
 
         private String id;
 
+        // 조상/하위 id 와 이 그룹 기준 상대 깊이
         @Builder.Default
-        private Set<String> parents = new HashSet<>();
+        private Map<String, Integer> parents = new HashMap<>();
 
         @Builder.Default
-        private Set<String> children = new HashSet<>();
+        private Map<String, Integer> children = new HashMap<>();
 
         public static VO fromParent(VO parentVO, String id) {
             VO vo = VO.builder().id(id).build();
-            vo.parents.add(parentVO.getId());
-            vo.parents.addAll(parentVO.getParents());
+            vo.parents.put(parentVO.getId(), 1);
+            parentVO.getParents().forEach((parent, depth) -> vo.parents.put(parent, depth + 1));
             return vo;
         }
 
+        // parents 에 조상이 모두 들어 있으므로 재귀 없이 한 단계씩만 추가한다
         public void addChild(String childId, Function<String, VO> voFunction) {
-            children.add(childId);
-            for (String parent : parents) {
-                voFunction.apply(parent).addChild(childId, voFunction);
-            }
-        }
-
-        public void changeParent(VO parent) {
-            parents.clear();
-            parents.add(parent.getId());
-            parents.addAll(parent.getParents());
+            children.put(childId, 1);
+            parents.forEach((parent, depth) -> voFunction.apply(parent).children.put(childId, depth + 1));
         }
     }
 }
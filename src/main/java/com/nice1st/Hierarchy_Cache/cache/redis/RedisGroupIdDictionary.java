@@ -0,0 +1,170 @@
+package com.nice1st.Hierarchy_Cache.cache.redis;
+
+import static com.nice1st.Hierarchy_Cache.cache.redis.RedisCacheKeyUtil.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import com.nice1st.Hierarchy_Cache.cache.GroupIdRegistry;
+
+import lombok.RequiredArgsConstructor;
+
+// 그룹 UUID 를 테넌트마다 1 부터 증가하는 정수로 바꾸는 Redis hash 사전
+// 쓰기 측이 생성 커밋 후 새 그룹을 등록하고, 캐시 적재/재생도 없는 id 는 같은 스크립트로 등록한다
+// 사전이 살아 있는 동안 번호는 바뀌지 않으므로 로컬에 캐시하고, 다음 경우에 버린다
+// - 어느 인스턴스든 테넌트를 초기화하면 reset 채널로 알린다(Redis 유실 후 첫 읽기는 재초기화로 이어진다)
+// - 등록 스크립트가 돌려준 사전 세대가 로컬과 다르면(사전이 유실돼 다시 만들어졌으면) 그 자리에서 버린다
+@RequiredArgsConstructor
+public class RedisGroupIdDictionary implements GroupIdRegistry, MessageListener {
+
+    public static final String RESET_CHANNEL = "hierarchy-cache:dictionary-reset";
+
+    private static final StringRedisSerializer STRING = StringRedisSerializer.UTF_8;
+
+    // 스크립트가 돌려준 목록의 원소마다 적용된다
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final RedisSerializer<List<String>> ELEMENTS = (RedisSerializer) STRING;
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    private final int chunkSize;
+
+    private final Map<String, Map<String, String>> numberByGroupByTenant = new ConcurrentHashMap<>();
+
+    private final Map<String, Map<String, String>> groupByNumberByTenant = new ConcurrentHashMap<>();
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    // 로컬 사전이 캐시한 Redis 사전의 세대
+    private final Map<String, String> generationByTenant = new ConcurrentHashMap<>();
+
+    // groupIds 순서대로 번호, 없으면 새로 발급
+    public List<String> intern(String tenantId, List<String> groupIds) {
+        List<String> missing = groupIds.stream().filter(groupId -> !numberByGroup(tenantId).containsKey(groupId))
+          .distinct().toList();
+        for (int from = 0; from < missing.size(); from += chunkSize) {
+            List<String> chunk = missing.subList(from, Math.min(from + chunkSize, missing.size()));
+            Object[] args = new Object[chunk.size() + 1];
+            args[0] = UUID.randomUUID().toString();
+            for (int i = 0; i < chunk.size(); i++) {
+                args[i + 1] = chunk.get(i);
+            }
+            List<String> result = redisTemplate.execute(RedisCacheScripts.INTERN_GROUPS, STRING, ELEMENTS,
+              List.of(getIdsKey(tenantId), getNamesKey(tenantId), getIdSequenceKey(tenantId),
+                getIdGenerationKey(tenantId)), args);
+            String generation = result.getFirst();
+            if (!generation.equals(generationByTenant.put(tenantId, generation))) {
+                clear(tenantId);
+            }
+            for (int i = 0; i < chunk.size(); i++) {
+                cache(tenantId, chunk.get(i), result.get(i + 1));
+            }
+        }
+        // 세대가 바뀌었으면 앞서 로컬에서 찾은 번호도 버려졌으므로 다시 찾는다
+        List<String> numbers = groupIds.stream().map(numberByGroup(tenantId)::get).toList();
+        return numbers.contains(null) ? intern(tenantId, groupIds) : numbers;
+    }
+
+    @Override
+    public String intern(String tenantId, String groupId) {
+        return intern(tenantId, List.of(groupId)).getFirst();
+    }
+
+    // 등록된 그룹만 group id -> 번호, 조회 경로에서 쓰므로 새로 발급하지 않는다
+    public Map<String, String> numbers(String tenantId, Collection<String> groupIds) {
+        Map<String, String> numberByGroup = numberByGroup(tenantId);
+        Map<String, String> numbers = new HashMap<>(groupIds.size() * 4 / 3 + 1);
+        List<String> missing = new ArrayList<>();
+        for (String groupId : groupIds) {
+            String number = numberByGroup.get(groupId);
+            if (number != null) {
+                numbers.put(groupId, number);
+            } else {
+                missing.add(groupId);
+            }
+        }
+        fetch(getIdsKey(tenantId), missing, (groupId, number) -> {
+            cache(tenantId, groupId, number);
+            numbers.put(groupId, number);
+        });
+        return numbers;
+    }
+
+    public String number(String tenantId, String groupId) {
+        return numbers(tenantId, List.of(groupId)).get(groupId);
+    }
+
+    // 번호 순서대로 group id
+    public List<String> names(String tenantId, Collection<String> numbers) {
+        Map<String, String> groupByNumber = groupByNumber(tenantId);
+        List<String> missing = numbers.stream().filter(number -> !groupByNumber.containsKey(number)).toList();
+        fetch(getNamesKey(tenantId), missing, (number, groupId) -> cache(tenantId, groupId, number));
+        return numbers.stream().map(groupByNumber::get).toList();
+    }
+
+    // 테넌트 초기화 때 모든 인스턴스가 로컬 사전을 버리게 한다
+    public void reset(String tenantId) {
+        forget(tenantId);
+        redisTemplate.convertAndSend(RESET_CHANNEL, instanceId + ":" + tenantId);
+    }
+
+    public void forget(String tenantId) {
+        generationByTenant.remove(tenantId);
+        clear(tenantId);
+    }
+
+    // 다른 인스턴스가 테넌트를 초기화했다는 알림, 자신이 보낸 것은 이미 버렸으므로 무시한다
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String payload = (String) redisTemplate.getValueSerializer().deserialize(message.getBody());
+        if (payload == null) {
+            return;
+        }
+        int separator = payload.indexOf(':');
+        if (!payload.substring(0, separator).equals(instanceId)) {
+            forget(payload.substring(separator + 1));
+        }
+    }
+
+    private void clear(String tenantId) {
+        numberByGroupByTenant.remove(tenantId);
+        groupByNumberByTenant.remove(tenantId);
+    }
+
+    private void fetch(String key, List<String> fields, BiConsumer<String, String> found) {
+        for (int from = 0; from < fields.size(); from += chunkSize) {
+            List<Object> chunk = new ArrayList<>(fields.subList(from, Math.min(from + chunkSize, fields.size())));
+            List<Object> values = redisTemplate.opsForHash().multiGet(key, chunk);
+            for (int i = 0; i < chunk.size(); i++) {
+                if (values.get(i) != null) {
+                    found.accept((String) chunk.get(i), (String) values.get(i));
+                }
+            }
+        }
+    }
+
+    private void cache(String tenantId, String groupId, String number) {
+        numberByGroup(tenantId).put(groupId, number);
+        groupByNumber(tenantId).put(number, groupId);
+    }
+
+    private Map<String, String> numberByGroup(String tenantId) {
+        return numberByGroupByTenant.computeIfAbsent(tenantId, k -> new ConcurrentHashMap<>());
+    }
+
+    private Map<String, String> groupByNumber(String tenantId) {
+        return groupByNumberByTenant.computeIfAbsent(tenantId, k -> new ConcurrentHashMap<>());
+    }
+}
@@ -0,0 +1,195 @@
+package com.nice1st.Hierarchy_Cache.cache.redis;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import com.nice1st.Hierarchy_Cache.cache.CacheService;
+import com.nice1st.Hierarchy_Cache.cache.ChildrenPage;
+import com.nice1st.Hierarchy_Cache.cache.HierarchyStats;
+import com.nice1st.Hierarchy_Cache.cache.HierarchyTree;
+import com.nice1st.Hierarchy_Cache.cache.SetOperation;
+import com.nice1st.Hierarchy_Cache.cache.SubtreeStats;
+
+import lombok.RequiredArgsConstructor;
+
+// id-encoding=integer 의 CacheService
+// 사전으로 group id 를 정수로 바꿔 delegate(GroupIdRedisSerializer 를 쓰는 RedisCacheService)에 넘기고, 결과를 다시 group id 로 돌린다
+// sorted set 멤버가 짧은 정수라 작은 집합은 listpack 안에 정수로, 큰 집합도 UUID 문자열보다 훨씬 작게 담긴다
+@RequiredArgsConstructor
+public class RedisInternedCacheService implements CacheService {
+
+    private final CacheService delegate;
+
+    private final RedisGroupIdDictionary dictionary;
+
+    @Override
+    public String getRootGroup() {
+        return delegate.getRootGroup();
+    }
+
+    @Override
+    public String getCursor(String tenantId) {
+        return delegate.getCursor(tenantId);
+    }
+
+    @Override
+    public void updateCursor(String tenantId, Long tsid) {
+        delegate.updateCursor(tenantId, tsid);
+    }
+
+    @Override
+    public Optional<String> getHighWaterMark(String tenantId) {
+        return delegate.getHighWaterMark(tenantId);
+    }
+
+    @Override
+    public void advanceHighWaterMark(String tenantId, Long tsid) {
+        delegate.advanceHighWaterMark(tenantId, tsid);
+    }
+
+    // 구조는 그대로 두고 id 만 번호로 바꿔 적재한다, Redis 가 비워졌을 수 있으므로 모든 인스턴스의 로컬 사전을 버린다
+    @Override
+    public void initialize(String tenantId, HierarchyTree tree) {
+        dictionary.reset(tenantId);
+        delegate.initialize(tenantId, tree.withIds(dictionary.intern(tenantId, tree.ids())));
+    }
+
+    @Override
+    public void deleteGroup(String tenantId, String groupId) {
+        String number = dictionary.number(tenantId, groupId);
+        if (number != null) {
+            delegate.deleteGroup(tenantId, number);
+        }
+    }
+
+    // 쓰기 측이 이미 등록했으면 그 번호를 받고, 없으면 여기서 발급한다
+    @Override
+    public void createGroup(String tenantId, String parentId, String id) {
+        List<String> numbers = dictionary.intern(tenantId, List.of(parentId, id));
+        delegate.createGroup(tenantId, numbers.get(0), numbers.get(1));
+    }
+
+    @Override
+    public void moveGroup(String tenantId, String newParentId, String targetId) {
+        List<String> numbers = dictionary.intern(tenantId, List.of(newParentId, targetId));
+        delegate.moveGroup(tenantId, numbers.get(0), numbers.get(1));
+    }
+
+    @Override
+    public Set<String> getParents(String tenantId, String groupId) {
+        String number = dictionary.number(tenantId, groupId);
+        return number != null ? names(tenantId, delegate.getParents(tenantId, number)) : Collections.emptySet();
+    }
+
+    @Override
+    public Map<String, Set<String>> getParents(String tenantId, Collection<String> groupIds) {
+        Map<String, String> numbers = dictionary.numbers(tenantId, groupIds);
+        Map<String, Set<String>> parentsByNumber = delegate.getParents(tenantId, numbers.values());
+        Map<String, Set<String>> parentsByGroup = new HashMap<>();
+        for (String groupId : groupIds) {
+            String number = numbers.get(groupId);
+            parentsByGroup.put(groupId,
+              number != null ? names(tenantId, parentsByNumber.get(number)) : Collections.emptySet());
+        }
+        return parentsByGroup;
+    }
+
+    @Override
+    public Set<String> getChildren(String tenantId, String groupId) {
+        String number = dictionary.number(tenantId, groupId);
+        return number != null ? names(tenantId, delegate.getChildren(tenantId, number)) : Collections.emptySet();
+    }
+
+    @Override
+    public Set<String> getChildren(String tenantId, String groupId, int maxDepth) {
+        String number = dictionary.number(tenantId, groupId);
+        return number != null
+          ? names(tenantId, delegate.getChildren(tenantId, number, maxDepth))
+          : Collections.emptySet();
+    }
+
+    @Override
+    public List<String> getPath(String tenantId, String groupId) {
+        String number = dictionary.number(tenantId, groupId);
+        return number != null ? dictionary.names(tenantId, delegate.getPath(tenantId, number)) : Collections.emptyList();
+    }
+
+    @Override
+    public String pageSource() {
+        return "redis-integer";
+    }
+
+    @Override
+    public ChildrenPage getChildren(String tenantId, String groupId, String cursor, int limit) {
+        String number = dictionary.number(tenantId, groupId);
+        if (number == null) {
+            return ChildrenPage.empty();
+        }
+        ChildrenPage page = delegate.getChildren(tenantId, number, cursor, limit);
+        return new ChildrenPage(dictionary.names(tenantId, page.ids()), page.nextCursor());
+    }
+
+    // 사전에 없는 그룹은 하위가 없는 그룹과 같다
+    @Override
+    public Set<String> combineChildren(String tenantId, List<String> groupIds, SetOperation operation) {
+        Map<String, String> numbers = dictionary.numbers(tenantId, groupIds);
+        List<String> known = groupIds.stream().map(numbers::get).filter(Objects::nonNull).toList();
+        boolean empty = switch (operation) {
+            case UNION -> known.isEmpty();
+            case INTERSECTION -> known.size() < groupIds.size();
+            case DIFFERENCE -> !numbers.containsKey(groupIds.getFirst());
+        };
+        return empty ? Collections.emptySet() : names(tenantId, delegate.combineChildren(tenantId, known, operation));
+    }
+
+    @Override
+    public Set<String> filterChildren(String tenantId, String groupId, Collection<String> candidateIds) {
+        String number = dictionary.number(tenantId, groupId);
+        if (number == null) {
+            return Collections.emptySet();
+        }
+
+        Map<String, String> candidates = dictionary.numbers(tenantId, candidateIds);
+        Set<String> matched = delegate.filterChildren(tenantId, number, candidates.values());
+        Set<String> ids = new LinkedHashSet<>();
+        for (String candidateId : candidateIds) {
+            String candidate = candidates.get(candidateId);
+            if (candidate != null && matched.contains(candidate)) {
+                ids.add(candidateId);
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public SubtreeStats getSubtreeStats(String tenantId, String groupId) {
+        String number = dictionary.number(tenantId, groupId);
+        return number != null ? delegate.getSubtreeStats(tenantId, number) : new SubtreeStats(0, 0);
+    }
+
+    @Override
+    public HierarchyStats getStats(String tenantId) {
+        return delegate.getStats(tenantId);
+    }
+
+    @Override
+    public boolean hasCached(String tenantId, String groupId) {
+        String number = dictionary.number(tenantId, groupId);
+        return number != null && delegate.hasCached(tenantId, number);
+    }
+
+    private Set<String> names(String tenantId, Set<String> numbers) {
+        if (numbers == null || numbers.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return new LinkedHashSet<>(dictionary.names(tenantId, new ArrayList<>(numbers)));
+    }
+}
@@ -1,47 +1,169 @@
 package com.nice1st.Hierarchy_Cache.cache.redis;
 
+import static com.nice1st.Hierarchy_Cache.cache.redis.RedisCacheKeyUtil.*;
+
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
-import java.util.Objects;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
 import org.springframework.data.redis.core.RedisTemplate;
 
 import com.nice1st.Hierarchy_Cache.cache.LockService;
 
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// 락마다 고유 토큰으로 소유자를 구분하고, 해제는 Lua 로 비교 후 삭제 + PUBLISH 한다
+// 대기자는 해제 알림(pub/sub)으로 바로 깨어나고, 알림을 놓친 경우(만료 등)를 위해 지수 백오프로 재시도한다
+@Slf4j
+public class RedisLockService implements LockService, MessageListener {
+
+    public static final String RELEASE_CHANNEL = "hierarchy-cache:lock-released";
 
-@RequiredArgsConstructor
-public class RedisLockService implements LockService {
+    private static final long MIN_BACKOFF_MILLIS = 10;
+
+    private static final long MAX_BACKOFF_MILLIS = 200;
 
     private final RedisTemplate<String, String> redisTemplate;
 
+    private final Map<String, Lease> leaseByKey = new ConcurrentHashMap<>();
+
+    private final Map<String, Signal> signalByKey = new ConcurrentHashMap<>();
+
+    // 긴 cacheInitialize 중에도 락이 만료되지 않도록 ttl 의 1/3 마다 연장
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(
+      Thread.ofPlatform().name("redis-lock-watchdog").daemon().factory());
+
+    public RedisLockService(RedisTemplate<String, String> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
     @Override
     public String getLockKey(String tenantId) {
-        return tenantId + ":group:lock";
+        return getPrefixKey(tenantId) + ":lock";
     }
 
     @Override
     public boolean tryLock(String key, Duration ttl, Duration maxWait) {
-        long startTime = System.currentTimeMillis();
-        while (System.currentTimeMillis() - startTime < maxWait.toMillis()) {
-            Boolean success = redisTemplate.opsForValue().setIfAbsent(key, Thread.currentThread().getName(), ttl);
+        String token = UUID.randomUUID().toString();
+        Signal signal = signalByKey.computeIfAbsent(key, k -> new Signal());
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        long backoff = MIN_BACKOFF_MILLIS;
+
+        while (true) {
+            long releases = signal.releases();
+            Boolean success = redisTemplate.opsForValue().setIfAbsent(key, token, ttl);
             if (Boolean.TRUE.equals(success)) {
+                // 이전 소유자의 락이 해제 없이 만료된 경우, 그 연장 작업은 여기서 멈춘다
+                Lease previous = leaseByKey.put(key, new Lease(token, Thread.currentThread(), renew(key, token, ttl)));
+                if (previous != null) {
+                    previous.renewal().cancel(false);
+                }
                 return true;
             }
+
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0) {
+                return false;
+            }
             try {
-                Thread.sleep(100); // 재시도 간격
+                signal.await(releases, Math.min(backoff, remaining));
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 return false;
             }
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
         }
-        return false;
     }
 
     @Override
     public void unlock(String key) {
-        String currentValue = redisTemplate.opsForValue().get(key);
-        if (Objects.equals(currentValue, Thread.currentThread().getName())) {
-            redisTemplate.delete(key);
+        Lease lease = leaseByKey.get(key);
+        if (lease == null || lease.owner() != Thread.currentThread()) {
+            return;
+        }
+
+        leaseByKey.remove(key);
+        lease.renewal().cancel(false);
+        redisTemplate.execute(RedisCacheScripts.RELEASE_LOCK, List.of(key), lease.token(), RELEASE_CHANNEL);
+
+        // 같은 JVM 의 대기자는 pub/sub 왕복을 기다리지 않고 바로 깨운다
+        Signal signal = signalByKey.get(key);
+        if (signal != null) {
+            signal.release();
+        }
+    }
+
+    // 다른 인스턴스(또는 자신)가 락을 해제했다는 알림
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Signal signal = signalByKey.get(new String(message.getBody(), StandardCharsets.UTF_8));
+        if (signal != null) {
+            signal.release();
+        }
+    }
+
+    public void close() {
+        watchdog.shutdownNow();
+    }
+
+    private ScheduledFuture<?> renew(String key, String token, Duration ttl) {
+        long period = Math.max(1, ttl.toMillis() / 3);
+        return watchdog.scheduleAtFixedRate(() -> {
+            // 아직 등록 전이거나 해제된 경우(해제가 이 작업을 취소한다)
+            Lease lease = leaseByKey.get(key);
+            if (lease == null) {
+                return;
+            }
+            // 다른 lease 로 바뀌었으면 예외로 이후 연장을 멈춘다
+            if (!lease.token().equals(token)) {
+                throw new IllegalStateException("lease replaced: " + key);
+            }
+
+            Long renewed;
+            try {
+                renewed = redisTemplate.execute(RedisCacheScripts.RENEW_LOCK, List.of(key), token, ttl.toMillis());
+            } catch (Exception e) {
+                log.warn("[{}] lock renewal failed", key, e);
+                return;
+            }
+            // 이미 다른 소유자에게 넘어갔으면 예외로 이후 연장을 멈춘다
+            if (!Long.valueOf(1).equals(renewed)) {
+                log.warn("[{}] lock lost before unlock", key);
+                throw new IllegalStateException("lock lost: " + key);
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    private record Lease(String token, Thread owner, ScheduledFuture<?> renewal) {
+    }
+
+    // 해제 횟수를 세어 두고, SET NX 실패 후 그 사이에 해제가 있었다면 기다리지 않는다
+    private static class Signal {
+
+        private long releases;
+
+        private synchronized long releases() {
+            return releases;
+        }
+
+        private synchronized void release() {
+            releases++;
+            notifyAll();
+        }
+
+        private synchronized void await(long seen, long timeoutMillis) throws InterruptedException {
+            if (releases == seen) {
+                wait(timeoutMillis);
+            }
         }
     }
 }
@@ -0,0 +1,245 @@
+package com.nice1st.Hierarchy_Cache.cache.redis;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nice1st.Hierarchy_Cache.cache.CacheService;
+import com.nice1st.Hierarchy_Cache.cache.ChildrenPage;
+import com.nice1st.Hierarchy_Cache.cache.HierarchyStats;
+import com.nice1st.Hierarchy_Cache.cache.HierarchyTree;
+import com.nice1st.Hierarchy_Cache.cache.SetOperation;
+import com.nice1st.Hierarchy_Cache.cache.SubtreeStats;
+
+// Redis(L2) 앞에 자식 집합을 로컬(L1)로 들고 있는 CacheService
+// L1 항목은 적재 당시의 테넌트 커서와 세대로 태깅되고, 둘 중 하나라도 바뀌면 무효다
+// - 커서: getCursor 로 Redis 에서 읽은 값, 또는 다른 인스턴스가 pub/sub 으로 알려준 값
+// - 세대: 이 인스턴스에서 캐시를 변경할 때마다 증가
+// 없애는 것은 하위 집합 본문 전송과, L1 이 유효할 때의 존재 확인이다
+// 커서와 high-water mark 는 읽을 때마다 Redis 에서 읽는다(요청당 2 회)
+// - high-water mark 는 다른 인스턴스의 쓰기가 알림 없이 올리므로 로컬 값으로는 새 이벤트를 놓친다
+// - 커서 알림을 놓친 인스턴스가 낡은 커서로 빠른 경로를 계속 벗어나지 않도록, 커서는 L1 태깅 기준으로만 쓴다
+public class RedisNearCacheService implements CacheService, MessageListener {
+
+    public static final String CHANNEL = "hierarchy-cache:cursor";
+
+    private final CacheService delegate;
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    private final Cache<Key, Tagged> childrenCache;
+
+    private final Map<String, TenantVersion> versionByTenant = new ConcurrentHashMap<>();
+
+    public RedisNearCacheService(CacheService delegate, RedisTemplate<String, String> redisTemplate, long maximumIds,
+      Duration ttl) {
+        this.delegate = delegate;
+        this.redisTemplate = redisTemplate;
+        this.childrenCache = Caffeine.newBuilder()
+          .maximumWeight(maximumIds)
+          .weigher((Key key, Tagged tagged) -> Math.max(1, tagged.ids().size()))
+          .expireAfterWrite(ttl)
+          .build();
+    }
+
+    @Override
+    public String getRootGroup() {
+        return delegate.getRootGroup();
+    }
+
+    @Override
+    public String getCursor(String tenantId) {
+        String cursor = delegate.getCursor(tenantId);
+        version(tenantId).cursor = cursor;
+        return cursor;
+    }
+
+    @Override
+    public void updateCursor(String tenantId, Long tsid) {
+        delegate.updateCursor(tenantId, tsid);
+        moved(tenantId, String.valueOf(tsid));
+        redisTemplate.convertAndSend(CHANNEL, tenantId + ":" + tsid);
+    }
+
+    @Override
+    public Optional<String> getHighWaterMark(String tenantId) {
+        return delegate.getHighWaterMark(tenantId);
+    }
+
+    @Override
+    public void advanceHighWaterMark(String tenantId, Long tsid) {
+        delegate.advanceHighWaterMark(tenantId, tsid);
+    }
+
+    @Override
+    public void initialize(String tenantId, HierarchyTree tree) {
+        delegate.initialize(tenantId, tree);
+        version(tenantId).generation.incrementAndGet();
+        redisTemplate.convertAndSend(CHANNEL, tenantId + ":" + delegate.getCursor(tenantId));
+    }
+
+    @Override
+    public void deleteGroup(String tenantId, String groupId) {
+        delegate.deleteGroup(tenantId, groupId);
+        version(tenantId).generation.incrementAndGet();
+    }
+
+    @Override
+    public void createGroup(String tenantId, String parentId, String id) {
+        delegate.createGroup(tenantId, parentId, id);
+        version(tenantId).generation.incrementAndGet();
+    }
+
+    @Override
+    public void moveGroup(String tenantId, String newParentId, String targetId) {
+        delegate.moveGroup(tenantId, newParentId, targetId);
+        version(tenantId).generation.incrementAndGet();
+    }
+
+    @Override
+    public Set<String> getParents(String tenantId, String groupId) {
+        return delegate.getParents(tenantId, groupId);
+    }
+
+    @Override
+    public Map<String, Set<String>> getParents(String tenantId, Collection<String> groupIds) {
+        return delegate.getParents(tenantId, groupIds);
+    }
+
+    @Override
+    public Set<String> getChildren(String tenantId, String groupId) {
+        TenantVersion version = version(tenantId);
+        String cursor = version.cursor;
+        long generation = version.generation.get();
+        // 커서를 한 번도 보지 못했으면 태깅할 기준이 없으므로 L1 을 거치지 않는다
+        if (cursor == null) {
+            return delegate.getChildren(tenantId, groupId);
+        }
+
+        Key key = new Key(tenantId, groupId);
+        Tagged cached = childrenCache.getIfPresent(key);
+        if (cached != null && cached.isValid(cursor, generation)) {
+            return cached.ids();
+        }
+
+        Set<String> ids = Collections.unmodifiableSet(delegate.getChildren(tenantId, groupId));
+        childrenCache.put(key, new Tagged(cursor, generation, ids));
+        return ids;
+    }
+
+    // L1 에는 깊이 정보 없이 전체 하위 집합만 담으므로 깊이 조회와 경로는 Redis 에서 한 번에 읽는다
+    @Override
+    public Set<String> getChildren(String tenantId, String groupId, int maxDepth) {
+        return delegate.getChildren(tenantId, groupId, maxDepth);
+    }
+
+    @Override
+    public List<String> getPath(String tenantId, String groupId) {
+        return delegate.getPath(tenantId, groupId);
+    }
+
+    @Override
+    public String pageSource() {
+        return delegate.pageSource();
+    }
+
+    @Override
+    public ChildrenPage getChildren(String tenantId, String groupId, String cursor, int limit) {
+        return delegate.getChildren(tenantId, groupId, cursor, limit);
+    }
+
+    @Override
+    public Set<String> combineChildren(String tenantId, List<String> groupIds, SetOperation operation) {
+        return delegate.combineChildren(tenantId, groupIds, operation);
+    }
+
+    // L1 에 유효한 하위 집합이 있으면 로컬에서 판정하고, 없으면 적재하지 않고 Redis 에 묻는다
+    @Override
+    public Set<String> filterChildren(String tenantId, String groupId, Collection<String> candidateIds) {
+        TenantVersion version = version(tenantId);
+        String cursor = version.cursor;
+        Tagged cached = cursor != null ? childrenCache.getIfPresent(new Key(tenantId, groupId)) : null;
+        if (cached == null || !cached.isValid(cursor, version.generation.get())) {
+            return delegate.filterChildren(tenantId, groupId, candidateIds);
+        }
+
+        Set<String> ids = new LinkedHashSet<>(candidateIds);
+        ids.retainAll(cached.ids());
+        return ids;
+    }
+
+    // 캐시 갱신마다 함께 유지되는 값이라 L1 을 거치지 않는다
+    @Override
+    public SubtreeStats getSubtreeStats(String tenantId, String groupId) {
+        return delegate.getSubtreeStats(tenantId, groupId);
+    }
+
+    @Override
+    public HierarchyStats getStats(String tenantId) {
+        return delegate.getStats(tenantId);
+    }
+
+    // 지금 커서/세대로 태깅된 비어 있지 않은 하위 집합이 L1 에 있으면 그 버전의 Redis 에 자식 키가 있었다
+    // Redis 가 비워지면 커서도 함께 사라져 L1 항목이 무효가 되므로, 그때와 리프 그룹은 L2 에 묻는다
+    @Override
+    public boolean hasCached(String tenantId, String groupId) {
+        TenantVersion version = version(tenantId);
+        String cursor = version.cursor;
+        Tagged cached = cursor != null ? childrenCache.getIfPresent(new Key(tenantId, groupId)) : null;
+        if (cached != null && !cached.ids().isEmpty() && cached.isValid(cursor, version.generation.get())) {
+            return true;
+        }
+        return delegate.hasCached(tenantId, groupId);
+    }
+
+    // 다른 인스턴스(또는 자신)가 커서를 옮겼다는 알림
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String payload = (String) redisTemplate.getValueSerializer().deserialize(message.getBody());
+        if (payload == null) {
+            return;
+        }
+        int separator = payload.lastIndexOf(':');
+        moved(payload.substring(0, separator), payload.substring(separator + 1));
+    }
+
+    private void moved(String tenantId, String cursor) {
+        TenantVersion version = version(tenantId);
+        version.generation.incrementAndGet();
+        version.cursor = cursor;
+    }
+
+    private TenantVersion version(String tenantId) {
+        return versionByTenant.computeIfAbsent(tenantId, k -> new TenantVersion());
+    }
+
+    private static class TenantVersion {
+
+        private volatile String cursor;
+
+        private final AtomicLong generation = new AtomicLong();
+    }
+
+    private record Key(String tenantId, String groupId) {
+    }
+
+    private record Tagged(String cursor, long generation, Set<String> ids) {
+
+        private boolean isValid(String cursor, long generation) {
+            return this.generation == generation && this.cursor.equals(cursor);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.nice1st.Hierarchy_Cache.cache.redis;
+
+import static com.nice1st.Hierarchy_Cache.cache.redis.RedisCacheKeyUtil.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import com.nice1st.Hierarchy_Cache.cache.CacheService;
+import com.nice1st.Hierarchy_Cache.cache.ChildrenPage;
+import com.nice1st.Hierarchy_Cache.cache.HierarchyStats;
+import com.nice1st.Hierarchy_Cache.cache.HierarchyTree;
+import com.nice1st.Hierarchy_Cache.cache.SetOperation;
+import com.nice1st.Hierarchy_Cache.cache.SubtreeStats;
+import com.nice1st.Hierarchy_Cache.cache.local.InMemoryCacheService;
+
+import lombok.RequiredArgsConstructor;
+
+// 테넌트 트리 전체를 CSR 바이너리 값 하나({tenant}:group:snapshot)로 두는 CacheService
+// 스냅샷은 커서와 같은 MULTI 로 쓰여 커서로 태깅되고, 인스턴스는 커서가 바뀔 때마다 한 번 내려받아 로컬 비트맵 인덱스로 디코딩한다
+// 조회는 모두 로컬 인덱스에서 처리하고, 이벤트 재생은 로컬에 적용한 뒤 updateCursor 에서 스냅샷을 통째로 다시 쓴다
+@RequiredArgsConstructor
+public class RedisSnapshotCacheService implements CacheService {
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    private final InMemoryCacheService index = new InMemoryCacheService();
+
+    // 로컬 인덱스가 반영한 커서, 없으면 다음 조회 때 스냅샷을 내려받는다
+    private final Map<String, String> versionByTenant = new ConcurrentHashMap<>();
+
+    // 로컬 인덱스에만 적용되고 아직 스냅샷으로 쓰지 않은 테넌트
+    private final Set<String> dirtyTenants = ConcurrentHashMap.newKeySet();
+
+    private final Map<String, Object> loadLockByTenant = new ConcurrentHashMap<>();
+
+    @Override
+    public String getRootGroup() {
+        return index.getRootGroup();
+    }
+
+    @Override
+    public String getCursor(String tenantId) {
+        String cursor = Optional.ofNullable(redisTemplate.opsForValue().get(getCursorKey(tenantId))).orElse("0");
+        // 다른 인스턴스가 스냅샷을 새로 썼으면 다음 조회 때 다시 내려받는다
+        if (!cursor.equals(versionByTenant.get(tenantId)) && !dirtyTenants.contains(tenantId)) {
+            versionByTenant.remove(tenantId);
+        }
+        return cursor;
+    }
+
+    @Override
+    public void updateCursor(String tenantId, Long tsid) {
+        String cursor = String.valueOf(tsid);
+        if (dirtyTenants.remove(tenantId)) {
+            write(tenantId, index.snapshot(tenantId), cursor);
+        } else {
+            redisTemplate.opsForValue().set(getCursorKey(tenantId), cursor);
+        }
+        versionByTenant.put(tenantId, cursor);
+    }
+
+    @Override
+    public Optional<String> getHighWaterMark(String tenantId) {
+        return Optional.ofNullable(redisTemplate.opsForValue().get(getHighWaterMarkKey(tenantId)));
+    }
+
+    @Override
+    public void advanceHighWaterMark(String tenantId, Long tsid) {
+        redisTemplate.execute(RedisCacheScripts.ADVANCE_HIGH_WATER_MARK,
+          List.of(getHighWaterMarkKey(tenantId)), String.valueOf(tsid));
+    }
+
+    // 키를 그룹 수만큼 만들지 않으므로 초기화는 로컬 적재뿐이고, 스냅샷은 이어지는 updateCursor 가 커서와 같은 MULTI 로 쓴다
+    @Override
+    public void initialize(String tenantId, HierarchyTree tree) {
+        index.initialize(tenantId, tree);
+        dirtyTenants.add(tenantId);
+        versionByTenant.put(tenantId, getCursor(tenantId));
+    }
+
+    // 로컬 인덱스에 반쯤 적용된 변경은 되돌릴 수 없으므로 다음 조회 때 스냅샷을 다시 내려받는다
+    @Override
+    public void discardPending(String tenantId) {
+        if (dirtyTenants.remove(tenantId)) {
+            versionByTenant.remove(tenantId);
+        }
+    }
+
+    @Override
+    public void deleteGroup(String tenantId, String groupId) {
+        load(tenantId);
+        index.deleteGroup(tenantId, groupId);
+        dirtyTenants.add(tenantId);
+    }
+
+    @Override
+    public void createGroup(String tenantId, String parentId, String id) {
+        load(tenantId);
+        index.createGroup(tenantId, parentId, id);
+        dirtyTenants.add(tenantId);
+    }
+
+    @Override
+    public void moveGroup(String tenantId, String newParentId, String targetId) {
+        load(tenantId);
+        index.moveGroup(tenantId, newParentId, targetId);
+        dirtyTenants.add(tenantId);
+    }
+
+    @Override
+    public Set<String> getParents(String tenantId, String groupId) {
+        return load(tenantId).getParents(tenantId, groupId);
+    }
+
+    @Override
+    public Set<String> getChildren(String tenantId, String groupId) {
+        return load(tenantId).getChildren(tenantId, groupId);
+    }
+
+    @Override
+    public Set<String> getChildren(String tenantId, String groupId, int maxDepth) {
+        return load(tenantId).getChildren(tenantId, groupId, maxDepth);
+    }
+
+    @Override
+    public List<String> getPath(String tenantId, String groupId) {
+        return load(tenantId).getPath(tenantId, groupId);
+    }
+
+    @Override
+    public String pageSource() {
+        return "redis-snapshot";
+    }
+
+    @Override
+    public ChildrenPage getChildren(String tenantId, String groupId, String cursor, int limit) {
+        return load(tenantId).getChildren(tenantId, groupId, cursor, limit);
+    }
+
+    @Override
+    public Set<String> combineChildren(String tenantId, List<String> groupIds, SetOperation operation) {
+        return load(tenantId).combineChildren(tenantId, groupIds, operation);
+    }
+
+    @Override
+    public Set<String> filterChildren(String tenantId, String groupId, Collection<String> candidateIds) {
+        return load(tenantId).filterChildren(tenantId, groupId, candidateIds);
+    }
+
+    @Override
+    public SubtreeStats getSubtreeStats(String tenantId, String groupId) {
+        return load(tenantId).getSubtreeStats(tenantId, groupId);
+    }
+
+    @Override
+    public HierarchyStats getStats(String tenantId) {
+        return load(tenantId).getStats(tenantId);
+    }
+
+    @Override
+    public boolean hasCached(String tenantId, String groupId) {
+        return load(tenantId).hasCached(tenantId, groupId);
+    }
+
+    // 커서와 스냅샷을 MGET 한 번으로 함께 읽어 서로 다른 버전이 섞이지 않게 한다
+    private InMemoryCacheService load(String tenantId) {
+        if (versionByTenant.containsKey(tenantId)) {
+            return index;
+        }
+
+        synchronized (loadLockByTenant.computeIfAbsent(tenantId, k -> new Object())) {
+            if (versionByTenant.containsKey(tenantId)) {
+                return index;
+            }
+
+            List<byte[]> values = redisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+              connection.stringCommands().mGet(raw(getCursorKey(tenantId)), raw(getSnapshotKey(tenantId))));
+            String cursor = Optional.ofNullable(values.get(0)).map(value -> (String) valueSerializer().deserialize(value))
+              .orElse("0");
+            byte[] snapshot = values.get(1);
+            // 스냅샷이 없으면 빈 인덱스로 두어 읽기 경로가 재초기화하게 한다
+            index.initialize(tenantId, snapshot != null ? HierarchyTree.fromBytes(snapshot) : HierarchyTree.builder().build());
+            versionByTenant.put(tenantId, cursor);
+            return index;
+        }
+    }
+
+    // 스냅샷과 커서를 같은 트랜잭션으로 옮긴다
+    private void write(String tenantId, HierarchyTree tree, String cursor) {
+        byte[] snapshot = tree.toBytes();
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.multi();
+            connection.stringCommands().set(raw(getSnapshotKey(tenantId)), snapshot);
+            connection.stringCommands().set(raw(getCursorKey(tenantId)), valueSerializer().serialize(cursor));
+            return connection.exec();
+        });
+    }
+
+    private static byte[] raw(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedisSerializer<Object> valueSerializer() {
+        return (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+    }
+}
@@ -0,0 +1,21 @@
+package com.nice1st.Hierarchy_Cache.config;
+
+import com.nice1st.Hierarchy_Cache.repository.HierarchyGroupRepository;
+import com.nice1st.Hierarchy_Cache.service.HierarchyGroupSnapshotService;
+import com.nice1st.Hierarchy_Cache.service.HierarchyGroupSnapshotter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "hierarchy.cache.event-snapshot", name = "enabled", havingValue = "true")
+public class EventSnapshotConfig {
+
+    @Bean
+    public HierarchyGroupSnapshotter hierarchyGroupSnapshotter(HierarchyGroupRepository repository,
+      HierarchyGroupSnapshotService snapshotService) {
+        return new HierarchyGroupSnapshotter(repository, snapshotService);
+    }
+}
@@ -0,0 +1,125 @@
+package com.nice1st.Hierarchy_Cache.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "hierarchy.cache")
+public class HierarchyCacheProperties {
+
+    private final Redis redis = new Redis();
+    private final Fallback fallback = new Fallback();
+    private final Near near = new Near();
+    private final CatchUp catchUp = new CatchUp();
+    private final Prewarm prewarm = new Prewarm();
+    private final WriteThrough writeThrough = new WriteThrough();
+    private final EventSnapshot eventSnapshot = new EventSnapshot();
+
+    @Getter
+    @Setter
+    public static class Redis {
+
+        // initialize 시 한 번의 pipeline 으로 보낼 그룹 수
+        private int bulkLoadChunkSize = 1_000;
+
+        // KEYS: 그룹마다 조상/하위 키, SNAPSHOT: 테넌트 트리 전체를 바이너리 값 하나로
+        private Storage storage = Storage.KEYS;
+
+        // STRING: 그룹 id 를 JSON 문자열 멤버로, INTEGER: 테넌트별 정수로 바꿔 Redis 가 정수로 담게 한다(storage=keys 에서만)
+        private IdEncoding idEncoding = IdEncoding.STRING;
+
+        // 0 이하면 initialize/사전 등록 루프가 끝나지 않으므로 바인딩 단계에서 막는다
+        public void setBulkLoadChunkSize(int bulkLoadChunkSize) {
+            if (bulkLoadChunkSize <= 0) {
+                throw new IllegalArgumentException("bulk-load-chunk-size must be positive: " + bulkLoadChunkSize);
+            }
+            this.bulkLoadChunkSize = bulkLoadChunkSize;
+        }
+
+        public enum Storage {
+            KEYS, SNAPSHOT
+        }
+
+        public enum IdEncoding {
+            STRING, INTEGER
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Fallback {
+
+        // false 면 WITH RECURSIVE 를 지원하지 않는 DB 용으로 레벨 단위 IN 조회를 사용
+        private boolean recursiveQuery = true;
+
+        // 레벨 단위 조회 시 한 번의 IN 절에 담을 부모 수
+        private int inBatchSize = 1_000;
+    }
+
+    @Getter
+    @Setter
+    public static class Near {
+
+        // Redis 앞단에 로컬 L1 을 둘지 여부
+        private boolean enabled = false;
+
+        // L1 에 담을 수 있는 id 총 개수
+        private long maximumIds = 1_000_000;
+
+        // pub/sub 메시지를 놓쳐도 이 시간이 지나면 Redis 에서 다시 읽는다
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+
+    @Getter
+    @Setter
+    public static class CatchUp {
+
+        // 한 번에 읽어 적용할 이벤트 수, 페이지마다 커서를 옮긴다
+        private int pageSize = 1_000;
+
+        // 밀린 이벤트가 테넌트 그룹 수 * ratio 보다 많으면 재생 대신 전체 초기화
+        private double reinitializeRatio = 0.5;
+    }
+
+    @Getter
+    @Setter
+    public static class Prewarm {
+
+        // 기동 시와 interval 마다 전체 테넌트 캐시를 미리 초기화할지 여부
+        private boolean enabled = false;
+
+        // 동시에 초기화할 테넌트 수
+        private int concurrency = 4;
+
+        private Duration interval = Duration.ofMinutes(5);
+    }
+
+    @Getter
+    @Setter
+    public static class WriteThrough {
+
+        // 쓰기 커밋 직후 쓰기 측이 락을 잡고 캐시를 따라잡을지 여부, 실패해도 읽기 경로가 재생한다
+        private boolean enabled = false;
+
+        // 다른 쪽이 따라잡는 중이면 이만큼만 기다리고 넘긴다
+        private Duration lockWait = Duration.ofMillis(100);
+    }
+
+    @Getter
+    @Setter
+    public static class EventSnapshot {
+
+        // interval 마다 테넌트 트리 스냅샷을 남기고 그 이전 이벤트를 지울지 여부
+        private boolean enabled = false;
+
+        // 마지막 스냅샷 이후 이벤트가 이만큼 쌓인 테넌트만
+        private long minEvents = 10_000;
+
+        private Duration interval = Duration.ofMinutes(30);
+    }
+}
@@ -0,0 +1,24 @@
+package com.nice1st.Hierarchy_Cache.config;
+
+import com.nice1st.Hierarchy_Cache.cache.CacheService;
+import com.nice1st.Hierarchy_Cache.cache.LockService;
+import com.nice1st.Hierarchy_Cache.cache.local.InMemoryLockService;
+import com.nice1st.Hierarchy_Cache.cache.local.NestedIntervalCacheService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+@Profile("interval")
+public class IntervalCacheConfig {
+
+    @Bean
+    public CacheService cacheService() {
+        return new NestedIntervalCacheService();
+    }
+
+    @Bean
+    public LockService lockService() {
+        return new InMemoryLockService();
+    }
+}
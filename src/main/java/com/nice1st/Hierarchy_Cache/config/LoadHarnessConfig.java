@@ -0,0 +1,32 @@
+package com.nice1st.Hierarchy_Cache.config;
+
+import com.nice1st.Hierarchy_Cache.load.LoadHarnessRunner;
+import com.nice1st.Hierarchy_Cache.load.SyntheticHierarchyGenerator;
+import com.nice1st.Hierarchy_Cache.load.WorkloadRunner;
+import com.nice1st.Hierarchy_Cache.service.HierarchyGroupCommandService;
+import com.nice1st.Hierarchy_Cache.service.HierarchyGroupReadService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "hierarchy.load", name = "enabled", havingValue = "true")
+public class LoadHarnessConfig {
+
+    @Bean
+    public SyntheticHierarchyGenerator syntheticHierarchyGenerator(HierarchyGroupCommandService commandService) {
+        return new SyntheticHierarchyGenerator(commandService);
+    }
+
+    @Bean
+    public WorkloadRunner workloadRunner(HierarchyGroupReadService readService,
+      HierarchyGroupCommandService commandService) {
+        return new WorkloadRunner(readService, commandService);
+    }
+
+    @Bean
+    public LoadHarnessRunner loadHarnessRunner(SyntheticHierarchyGenerator generator, WorkloadRunner workloadRunner,
+      LoadProperties properties) {
+        return new LoadHarnessRunner(generator, workloadRunner, properties);
+    }
+}
@@ -0,0 +1,57 @@
+package com.nice1st.Hierarchy_Cache.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+// 로컬에서 운영 수준의 락 경합/이벤트 폭주를 재현하기 위한 합성 데이터와 부하 설정
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "hierarchy.load")
+public class LoadProperties {
+
+    // true 면 기동 후 합성 테넌트를 만들고 부하를 건 뒤 결과를 로그로 남긴다
+    private boolean enabled = false;
+
+    private final Generator generator = new Generator();
+    private final Workload workload = new Workload();
+
+    @Getter
+    @Setter
+    public static class Generator {
+
+        private int tenants = 4;
+
+        // 테넌트마다 루트를 포함한 그룹 수
+        private int nodesPerTenant = 10_000;
+
+        // 부모마다 자식 수를 [fanOutMin, fanOutMax] 에서 균등하게 뽑는다
+        private int fanOutMin = 1;
+        private int fanOutMax = 10;
+
+        // 루트 깊이 0 기준, 이 깊이보다 깊은 그룹은 만들지 않는다
+        private int maxDepth = 8;
+
+        private long seed = 42;
+
+        private String tenantPrefix = "synthetic-";
+    }
+
+    @Getter
+    @Setter
+    public static class Workload {
+
+        private int threads = 16;
+
+        private Duration duration = Duration.ofSeconds(60);
+
+        // 연산별 가중치, 합에 대한 비율로 뽑는다
+        private int readRatio = 90;
+        private int createRatio = 5;
+        private int moveRatio = 3;
+        private int removeRatio = 2;
+    }
+}
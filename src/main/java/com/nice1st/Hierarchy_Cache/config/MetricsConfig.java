@@ -0,0 +1,29 @@
+package com.nice1st.Hierarchy_Cache.config;
+
+import com.nice1st.Hierarchy_Cache.cache.CacheService;
+import com.nice1st.Hierarchy_Cache.metrics.HierarchyCacheMetrics;
+import com.nice1st.Hierarchy_Cache.metrics.MeteredCacheService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    // 백엔드별 설정을 건드리지 않고 어떤 CacheService 든 계측 데코레이터로 감싼다
+    @Bean
+    public static BeanPostProcessor meteredCacheServicePostProcessor(ObjectProvider<MeterRegistry> registry,
+      ObjectProvider<HierarchyCacheMetrics> metrics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof CacheService cacheService && !(bean instanceof MeteredCacheService)) {
+                    return new MeteredCacheService(cacheService, registry.getObject(), metrics.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
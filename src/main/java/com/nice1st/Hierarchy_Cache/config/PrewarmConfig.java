@@ -0,0 +1,24 @@
+package com.nice1st.Hierarchy_Cache.config;
+
+import com.nice1st.Hierarchy_Cache.repository.HierarchyGroupRepository;
+import com.nice1st.Hierarchy_Cache.service.HierarchyCachePrewarmer;
+import com.nice1st.Hierarchy_Cache.service.HierarchyGroupReadService;
+import com.nice1st.Hierarchy_Cache.service.TenantTrafficTracker;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "hierarchy.cache.prewarm", name = "enabled", havingValue = "true")
+public class PrewarmConfig {
+
+    @Bean
+    public HierarchyCachePrewarmer hierarchyCachePrewarmer(HierarchyGroupRepository repository,
+      HierarchyGroupReadService readService, TenantTrafficTracker trafficTracker,
+      HierarchyCacheProperties properties) {
+        return new HierarchyCachePrewarmer(repository, readService, trafficTracker,
+          properties.getPrewarm().getConcurrency());
+    }
+}
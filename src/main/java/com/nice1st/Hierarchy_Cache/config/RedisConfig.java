@@ -1,40 +1,109 @@
 package com.nice1st.Hierarchy_Cache.config;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import com.nice1st.Hierarchy_Cache.cache.CacheService;
 import com.nice1st.Hierarchy_Cache.cache.LockService;
+import com.nice1st.Hierarchy_Cache.cache.redis.GroupIdRedisSerializer;
 import com.nice1st.Hierarchy_Cache.cache.redis.RedisCacheService;
+import com.nice1st.Hierarchy_Cache.cache.redis.RedisGroupIdDictionary;
+import com.nice1st.Hierarchy_Cache.cache.redis.RedisInternedCacheService;
 import com.nice1st.Hierarchy_Cache.cache.redis.RedisLockService;
+import com.nice1st.Hierarchy_Cache.cache.redis.RedisNearCacheService;
+import com.nice1st.Hierarchy_Cache.cache.redis.RedisSnapshotCacheService;
 
 @Configuration
-@Profile("!local")
+@Profile("!local & !interval")
 public class RedisConfig {
 
     @Bean
     public RedisTemplate<String, String> redisTemplate(RedisConnectionFactory connectionFactory) {
+        return template(connectionFactory, new GenericJackson2JsonRedisSerializer());
+    }
+
+    private static RedisTemplate<String, String> template(RedisConnectionFactory connectionFactory,
+      RedisSerializer<?> valueSerializer) {
         RedisTemplate<String, String> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
 
         template.setKeySerializer(new StringRedisSerializer());
-        template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+        template.setValueSerializer(valueSerializer);
+        // 통계 hash 는 Lua 의 HINCRBY 로 갱신하므로 필드와 값을 그대로 둔다
+        template.setHashKeySerializer(new StringRedisSerializer());
+        template.setHashValueSerializer(new StringRedisSerializer());
 
         return template;
     }
 
     @Bean
-    public CacheService cacheService(RedisTemplate<String, String> redisTemplate) {
-        return new RedisCacheService(redisTemplate);
+    @ConditionalOnProperty(prefix = "hierarchy.cache.redis", name = "id-encoding", havingValue = "integer")
+    public RedisGroupIdDictionary groupIdDictionary(RedisTemplate<String, String> redisTemplate,
+      HierarchyCacheProperties properties, RedisMessageListenerContainer listenerContainer) {
+        // 다른 인스턴스가 테넌트를 초기화하면 로컬 사전을 버린다
+        RedisGroupIdDictionary dictionary = new RedisGroupIdDictionary(redisTemplate,
+          properties.getRedis().getBulkLoadChunkSize());
+        listenerContainer.addMessageListener(dictionary, new ChannelTopic(RedisGroupIdDictionary.RESET_CHANNEL));
+        return dictionary;
+    }
+
+    @Bean
+    public CacheService cacheService(RedisTemplate<String, String> redisTemplate, HierarchyCacheProperties properties,
+      RedisMessageListenerContainer listenerContainer, ObjectProvider<RedisGroupIdDictionary> groupIdDictionary) {
+        // 조회를 모두 로컬 인덱스에서 처리하므로 near cache 를 두지 않는다
+        if (properties.getRedis().getStorage() == HierarchyCacheProperties.Redis.Storage.SNAPSHOT) {
+            return new RedisSnapshotCacheService(redisTemplate);
+        }
+
+        // 정수 id 를 따옴표 없는 숫자로 써야 하므로 value serializer 만 바꾼 템플릿으로 적재한다
+        RedisGroupIdDictionary dictionary = groupIdDictionary.getIfAvailable();
+        RedisTemplate<String, String> cacheTemplate = redisTemplate;
+        if (dictionary != null) {
+            cacheTemplate = template(redisTemplate.getConnectionFactory(), new GroupIdRedisSerializer());
+            cacheTemplate.afterPropertiesSet();
+        }
+        RedisCacheService redisCacheService = new RedisCacheService(cacheTemplate,
+          properties.getRedis().getBulkLoadChunkSize());
+        redisCacheService.loadScripts();
+        CacheService cacheService = dictionary != null
+          ? new RedisInternedCacheService(redisCacheService, dictionary)
+          : redisCacheService;
+
+        HierarchyCacheProperties.Near near = properties.getNear();
+        if (!near.isEnabled()) {
+            return cacheService;
+        }
+
+        // 다른 인스턴스가 커서를 옮기면 pub/sub 으로 받아 L1 을 무효화한다
+        RedisNearCacheService nearCacheService = new RedisNearCacheService(cacheService, redisTemplate,
+          near.getMaximumIds(), near.getTtl());
+        listenerContainer.addMessageListener(nearCacheService, new ChannelTopic(RedisNearCacheService.CHANNEL));
+        return nearCacheService;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
     }
 
     @Bean
-    public LockService lockService(RedisTemplate<String, String> redisTemplate) {
-        return new RedisLockService(redisTemplate);
+    public LockService lockService(RedisTemplate<String, String> redisTemplate,
+      RedisMessageListenerContainer listenerContainer) {
+        // 락 해제 알림으로 대기자를 깨운다
+        RedisLockService lockService = new RedisLockService(redisTemplate);
+        listenerContainer.addMessageListener(lockService, new ChannelTopic(RedisLockService.RELEASE_CHANNEL));
+        return lockService;
     }
 }
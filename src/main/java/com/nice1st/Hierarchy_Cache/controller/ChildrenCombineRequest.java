@@ -0,0 +1,8 @@
+package com.nice1st.Hierarchy_Cache.controller;
+
+import com.nice1st.Hierarchy_Cache.cache.SetOperation;
+
+import java.util.List;
+
+public record ChildrenCombineRequest(List<String> groupIds, SetOperation operation) {
+}
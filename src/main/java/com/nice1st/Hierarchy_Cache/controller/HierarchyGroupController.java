@@ -1,12 +1,25 @@
 package com.nice1st.Hierarchy_Cache.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nice1st.Hierarchy_Cache.cache.ChildrenPage;
+import com.nice1st.Hierarchy_Cache.cache.HierarchyStats;
+import com.nice1st.Hierarchy_Cache.cache.InvalidCursorException;
+import com.nice1st.Hierarchy_Cache.cache.SubtreeStats;
 import com.nice1st.Hierarchy_Cache.service.HierarchyGroupReadService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.List;
 import java.util.Set;
 
 @RestController
@@ -14,10 +27,88 @@ import java.util.Set;
 @RequiredArgsConstructor
 public class HierarchyGroupController {
 
+    private static final int MAX_PAGE_SIZE = 10_000;
+
+    private static final int STREAM_PAGE_SIZE = 1_000;
+
     private final HierarchyGroupReadService readService;
 
+    private final ObjectMapper objectMapper;
+
     @GetMapping("/{groupId}/children")
     public Set<String> getChildren(@PathVariable String groupId) {
         return readService.read(groupId);
     }
+
+    // maxDepth 레벨 아래까지만, 1 이면 직속 자식
+    @GetMapping(value = "/{groupId}/children", params = {"maxDepth", "!limit"})
+    public Set<String> getChildren(@PathVariable String groupId, @RequestParam int maxDepth) {
+        return readService.read(groupId, Math.max(maxDepth, 1));
+    }
+
+    // 여러 그룹의 하위 집합을 합집합/교집합/차집합으로 한 번에 계산
+    @PostMapping("/children")
+    public Set<String> combineChildren(@RequestBody ChildrenCombineRequest request) {
+        return readService.combine(request.groupIds(), request.operation());
+    }
+
+    @GetMapping("/{groupId}/ancestors")
+    public Set<String> getAncestors(@PathVariable String groupId) {
+        return readService.readAncestors(groupId);
+    }
+
+    // 하위 수와 높이, 하위 집합을 전송하지 않는다
+    @GetMapping("/{groupId}/stats")
+    public SubtreeStats getSubtreeStats(@PathVariable String groupId) {
+        return readService.readSubtreeStats(groupId);
+    }
+
+    // 테넌트 전체 그룹 수, 높이, 최대/평균 fan-out
+    @GetMapping(value = "/stats", params = "tenantId")
+    public HierarchyStats getStats(@RequestParam String tenantId) {
+        return readService.readStats(tenantId);
+    }
+
+    // 최상위 그룹부터 groupId 까지의 경로
+    @GetMapping("/{groupId}/path")
+    public List<String> getPath(@PathVariable String groupId) {
+        return readService.readPath(groupId);
+    }
+
+    // 본문으로 받은 후보 id 중 groupId 하위에 속한 것만 반환, 후보가 많아 GET 대신 POST
+    @PostMapping("/{groupId}/children/filter")
+    public Set<String> filterChildren(@PathVariable String groupId, @RequestBody List<String> candidateIds) {
+        return readService.filterDescendants(groupId, candidateIds);
+    }
+
+    @GetMapping(value = "/{groupId}/children", params = "limit")
+    public ChildrenPage getChildrenPage(@PathVariable String groupId,
+      @RequestParam(required = false) String cursor, @RequestParam int limit) {
+        return readService.readPage(groupId, cursor, Math.clamp(limit, 1, MAX_PAGE_SIZE));
+    }
+
+    // 페이지 단위로 읽어 한 줄에 id 하나씩 바로 내보내므로 요청당 메모리가 페이지 크기로 제한된다
+    // 도중에 캐시가 실패해 DB 폴백으로 바뀌면 캐시 커서를 이어 읽을 수 없으므로 스트림을 끊는다(응답이 완결되지 않는다)
+    // 중복을 거르려면 요청당 전체 id 를 들고 있어야 하므로 거르지 않는다, Redis 는 리해시 중 같은 id 가 다시 나올 수 있다
+    @GetMapping(value = "/{groupId}/children", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamChildren(@PathVariable String groupId) {
+        StreamingResponseBody body = out -> {
+            String cursor = null;
+            do {
+                ChildrenPage page = readService.readPage(groupId, cursor, STREAM_PAGE_SIZE);
+                for (String id : page.ids()) {
+                    out.write(objectMapper.writeValueAsBytes(id));
+                    out.write('\n');
+                }
+                out.flush();
+                cursor = page.nextCursor();
+            } while (cursor != null);
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<String> invalidCursor(InvalidCursorException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
 }
@@ -46,6 +46,12 @@ public class HierarchyGroup {
         return hierarchyGroup;
     }
 
+    public static HierarchyGroup newRoot(String tenantId) {
+        HierarchyGroup hierarchyGroup = new HierarchyGroup();
+        hierarchyGroup.tenantId = tenantId;
+        return hierarchyGroup;
+    }
+
     public String getParentId() {
         return parent != null ? parent.getId() : null;
     }
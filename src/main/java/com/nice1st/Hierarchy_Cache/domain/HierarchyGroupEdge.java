@@ -0,0 +1,5 @@
+package com.nice1st.Hierarchy_Cache.domain;
+
+// 트리 적재용 (id, parent_id) 프로젝션
+public record HierarchyGroupEdge(String id, String parentId) {
+}
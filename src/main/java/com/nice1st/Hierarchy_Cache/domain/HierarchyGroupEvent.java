@@ -4,6 +4,7 @@ import com.github.f4b6a3.tsid.Tsid;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
@@ -13,7 +14,9 @@ import lombok.NoArgsConstructor;
 
 @Getter
 @Entity
-@Table(name = "hierarchy_group_event")
+// 따라잡기는 테넌트의 커서 이후 이벤트를 id 순으로 읽으므로 (tenant_id, id) 범위 스캔이 되게 한다
+@Table(name = "hierarchy_group_event",
+  indexes = @Index(name = "idx_hierarchy_group_event_tenant_id_id", columnList = "tenant_id, id"))
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
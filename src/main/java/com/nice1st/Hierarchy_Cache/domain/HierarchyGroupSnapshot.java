@@ -0,0 +1,27 @@
+package com.nice1st.Hierarchy_Cache.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+// 테넌트마다 최신 트리 스냅샷 하나, eventId 이하의 이벤트는 모두 반영돼 있어 이벤트 테이블에서 지운다
+@Getter
+@Entity
+@Table(name = "hierarchy_group_snapshot")
+@AllArgsConstructor
+@NoArgsConstructor
+public class HierarchyGroupSnapshot {
+
+    @Id
+    private String tenantId;
+
+    private Long eventId;
+
+    // HierarchyTree.toBytes()
+    @Lob
+    private byte[] tree;
+}
@@ -0,0 +1,28 @@
+package com.nice1st.Hierarchy_Cache.load;
+
+import java.util.List;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+
+import com.nice1st.Hierarchy_Cache.config.LoadProperties;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// 기동 후 합성 테넌트를 만들고 부하를 건 뒤 결과를 로그로 남긴다
+@Slf4j
+@RequiredArgsConstructor
+public class LoadHarnessRunner implements ApplicationRunner {
+
+    private final SyntheticHierarchyGenerator generator;
+    private final WorkloadRunner workloadRunner;
+    private final LoadProperties properties;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        List<SyntheticTenant> tenants = generator.generate(properties.getGenerator());
+        WorkloadReport report = workloadRunner.run(tenants, properties.getWorkload());
+        log.info("workload finished\n{}", report.summary());
+    }
+}
@@ -0,0 +1,67 @@
+package com.nice1st.Hierarchy_Cache.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.nice1st.Hierarchy_Cache.config.LoadProperties;
+import com.nice1st.Hierarchy_Cache.domain.HierarchyGroup;
+import com.nice1st.Hierarchy_Cache.service.HierarchyGroupCommandService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// 테넌트마다 루트 하나짜리 트리를 만들어 HierarchyGroupCommandService 로 적재한다 (이벤트도 함께 쌓인다)
+// 너비 우선으로 부모마다 fan-out 을 뽑아 자식을 붙이고, maxDepth 에 닿은 그룹은 부모 후보에서 뺀다
+@Slf4j
+@RequiredArgsConstructor
+public class SyntheticHierarchyGenerator {
+
+    private final HierarchyGroupCommandService commandService;
+
+    public List<SyntheticTenant> generate(LoadProperties.Generator generator) throws Exception {
+        List<SyntheticTenant> tenants = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<SyntheticTenant>> futures = new ArrayList<>();
+            for (int i = 0; i < generator.getTenants(); i++) {
+                String tenantId = generator.getTenantPrefix() + i;
+                long seed = generator.getSeed() + i;
+                futures.add(executor.submit(() -> generate(tenantId, generator, new Random(seed))));
+            }
+            for (Future<SyntheticTenant> future : futures) {
+                tenants.add(future.get());
+            }
+        }
+        return tenants;
+    }
+
+    private SyntheticTenant generate(String tenantId, LoadProperties.Generator generator, Random random) {
+        HierarchyGroup root = commandService.createRoot(tenantId);
+        SyntheticTenant tenant = new SyntheticTenant(tenantId, root.getId());
+        tenant.add(root.getId());
+
+        List<Parent> parents = new ArrayList<>(List.of(new Parent(root.getId(), 0)));
+        int next = 0;
+        while (tenant.size() < generator.getNodesPerTenant()) {
+            // 너비 우선으로 다 돌았으면 남은 수만큼 아무 후보에나 붙인다
+            Parent parent = next < parents.size() ? parents.get(next++) : parents.get(random.nextInt(parents.size()));
+            int fanOut = generator.getFanOutMin() + random.nextInt(generator.getFanOutMax() - generator.getFanOutMin() + 1);
+            for (int i = 0; i < fanOut && tenant.size() < generator.getNodesPerTenant(); i++) {
+                HierarchyGroup group = commandService.create(parent.id());
+                tenant.add(group.getId());
+                if (parent.depth() + 1 < generator.getMaxDepth()) {
+                    parents.add(new Parent(group.getId(), parent.depth() + 1));
+                }
+            }
+        }
+
+        log.info("[{}] generated {} groups", tenantId, tenant.size());
+        return tenant;
+    }
+
+    private record Parent(String id, int depth) {
+    }
+}
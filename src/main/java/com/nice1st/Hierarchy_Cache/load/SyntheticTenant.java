@@ -0,0 +1,70 @@
+package com.nice1st.Hierarchy_Cache.load;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+import lombok.Getter;
+
+// 합성 테넌트의 그룹 id 목록. 부하 중 생성/삭제가 반영되며 무작위 선택이 O(1) 이다
+public class SyntheticTenant {
+
+    @Getter
+    private final String tenantId;
+
+    @Getter
+    private final String rootId;
+
+    private final List<String> groupIds = new ArrayList<>();
+
+    private final Map<String, Integer> indexById = new HashMap<>();
+
+    // 동시에 서로를 상대 아래로 옮기면 순환이 생기므로 이동만 테넌트 단위로 직렬화한다
+    @Getter
+    private final ReentrantLock moveLock = new ReentrantLock();
+
+    public SyntheticTenant(String tenantId, String rootId) {
+        this.tenantId = tenantId;
+        this.rootId = rootId;
+    }
+
+    public synchronized void add(String groupId) {
+        indexById.put(groupId, groupIds.size());
+        groupIds.add(groupId);
+    }
+
+    public synchronized void remove(String groupId) {
+        Integer index = indexById.remove(groupId);
+        if (index == null) {
+            return;
+        }
+        String last = groupIds.removeLast();
+        if (index < groupIds.size()) {
+            groupIds.set(index, last);
+            indexById.put(last, index);
+        }
+    }
+
+    public synchronized String randomGroup() {
+        return groupIds.get(ThreadLocalRandom.current().nextInt(groupIds.size()));
+    }
+
+    // 루트는 이동/삭제 대상에서 뺀다, 루트만 남았으면 null
+    public synchronized String randomNonRootGroup() {
+        if (groupIds.size() < 2) {
+            return null;
+        }
+        String groupId;
+        do {
+            groupId = groupIds.get(ThreadLocalRandom.current().nextInt(groupIds.size()));
+        } while (groupId.equals(rootId));
+        return groupId;
+    }
+
+    public synchronized int size() {
+        return groupIds.size();
+    }
+}
@@ -0,0 +1,80 @@
+package com.nice1st.Hierarchy_Cache.load;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+// 연산별 지연(ns) 히스토그램과 오류 수. 워커들이 동시에 기록한다
+public class WorkloadReport {
+
+    public enum Operation {
+        READ, CREATE, MOVE, REMOVE
+    }
+
+    private final Map<Operation, Histogram> latencyByOperation = new EnumMap<>(Operation.class);
+
+    private final Map<Operation, LongAdder> errorsByOperation = new EnumMap<>(Operation.class);
+
+    private final long started = System.nanoTime();
+
+    private long elapsedNanos;
+
+    public WorkloadReport() {
+        for (Operation operation : Operation.values()) {
+            latencyByOperation.put(operation, new ConcurrentHistogram(3));
+            errorsByOperation.put(operation, new LongAdder());
+        }
+    }
+
+    void record(Operation operation, long nanos) {
+        latencyByOperation.get(operation).recordValue(nanos);
+    }
+
+    void recordError(Operation operation) {
+        errorsByOperation.get(operation).increment();
+    }
+
+    void finish() {
+        elapsedNanos = System.nanoTime() - started;
+    }
+
+    public long count(Operation operation) {
+        return latencyByOperation.get(operation).getTotalCount();
+    }
+
+    public long errors(Operation operation) {
+        return errorsByOperation.get(operation).sum();
+    }
+
+    public double throughput() {
+        long total = 0;
+        for (Histogram histogram : latencyByOperation.values()) {
+            total += histogram.getTotalCount();
+        }
+        return total / (elapsedNanos / 1e9);
+    }
+
+    public String summary() {
+        StringBuilder summary = new StringBuilder(String.format("%-8s %10s %8s %10s %10s %10s %10s %10s (us)%n",
+          "op", "count", "errors", "p50", "p90", "p99", "p99.9", "max"));
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = latencyByOperation.get(operation);
+            summary.append(String.format("%-8s %10d %8d %10d %10d %10d %10d %10d%n", operation,
+              histogram.getTotalCount(), errors(operation),
+              micros(histogram.getValueAtPercentile(50)), micros(histogram.getValueAtPercentile(90)),
+              micros(histogram.getValueAtPercentile(99)), micros(histogram.getValueAtPercentile(99.9)),
+              micros(histogram.getMaxValue())));
+        }
+        summary.append(String.format("throughput %.1f ops/s over %d s", throughput(),
+          TimeUnit.NANOSECONDS.toSeconds(elapsedNanos)));
+        return summary.toString();
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
@@ -0,0 +1,101 @@
+package com.nice1st.Hierarchy_Cache.load;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.nice1st.Hierarchy_Cache.config.LoadProperties;
+import com.nice1st.Hierarchy_Cache.domain.HierarchyGroup;
+import com.nice1st.Hierarchy_Cache.service.HierarchyGroupCommandService;
+import com.nice1st.Hierarchy_Cache.service.HierarchyGroupReadService;
+
+import lombok.RequiredArgsConstructor;
+
+// threads 개의 워커가 duration 동안 무작위 테넌트에 read/create/move/remove 를 가중치대로 섞어 호출한다
+// 쓰기는 이벤트를 쌓고, 뒤따르는 read 가 락을 잡고 따라잡으므로 운영의 락 경합/이벤트 폭주가 재현된다
+@RequiredArgsConstructor
+public class WorkloadRunner {
+
+    private final HierarchyGroupReadService readService;
+    private final HierarchyGroupCommandService commandService;
+
+    public WorkloadReport run(List<SyntheticTenant> tenants, LoadProperties.Workload workload)
+      throws InterruptedException {
+        Map<WorkloadReport.Operation, Integer> weights = new EnumMap<>(WorkloadReport.Operation.class);
+        weights.put(WorkloadReport.Operation.READ, workload.getReadRatio());
+        weights.put(WorkloadReport.Operation.CREATE, workload.getCreateRatio());
+        weights.put(WorkloadReport.Operation.MOVE, workload.getMoveRatio());
+        weights.put(WorkloadReport.Operation.REMOVE, workload.getRemoveRatio());
+        int totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+
+        WorkloadReport report = new WorkloadReport();
+        long deadline = System.nanoTime() + workload.getDuration().toNanos();
+        try (ExecutorService executor = Executors.newFixedThreadPool(workload.getThreads())) {
+            for (int i = 0; i < workload.getThreads(); i++) {
+                executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        SyntheticTenant tenant = tenants.get(ThreadLocalRandom.current().nextInt(tenants.size()));
+                        WorkloadReport.Operation operation = pick(weights, totalWeight);
+                        long started = System.nanoTime();
+                        try {
+                            execute(operation, tenant);
+                            report.record(operation, System.nanoTime() - started);
+                        } catch (Exception e) {
+                            report.recordError(operation);
+                        }
+                    }
+                });
+            }
+        }
+        report.finish();
+        return report;
+    }
+
+    private void execute(WorkloadReport.Operation operation, SyntheticTenant tenant) {
+        switch (operation) {
+            case READ -> readService.read(tenant.randomGroup());
+            case CREATE -> tenant.add(commandService.create(tenant.randomGroup()).getId());
+            case MOVE -> move(tenant);
+            case REMOVE -> remove(tenant);
+        }
+    }
+
+    // 자기 하위로 옮기면 순환이 생기므로 DB 에서 하위 전체를 확인한 뒤 옮긴다
+    private void move(SyntheticTenant tenant) {
+        tenant.getMoveLock().lock();
+        try {
+            String groupId = tenant.randomNonRootGroup();
+            String parentId = tenant.randomGroup();
+            if (groupId == null || readService.recursiveIds(groupId).contains(parentId)) {
+                return;
+            }
+            commandService.move(groupId, parentId);
+        } finally {
+            tenant.getMoveLock().unlock();
+        }
+    }
+
+    // 자식이 있는 그룹은 FK 로 삭제가 실패하므로 오류로 집계된다
+    private void remove(SyntheticTenant tenant) {
+        String groupId = tenant.randomNonRootGroup();
+        if (groupId == null) {
+            return;
+        }
+        commandService.remove(groupId);
+        tenant.remove(groupId);
+    }
+
+    private static WorkloadReport.Operation pick(Map<WorkloadReport.Operation, Integer> weights, int totalWeight) {
+        int value = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<WorkloadReport.Operation, Integer> entry : weights.entrySet()) {
+            value -= entry.getValue();
+            if (value < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("no operation for weight " + value);
+    }
+}
@@ -0,0 +1,91 @@
+package com.nice1st.Hierarchy_Cache.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import com.github.f4b6a3.tsid.Tsid;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+
+// 읽기 경로/락/이벤트 재생/폴백 지표. 테넌트별로 알림을 걸 수 있도록 tenant 태그를 단다
+@Component
+@RequiredArgsConstructor
+public class HierarchyCacheMetrics {
+
+    private final MeterRegistry registry;
+
+    private final Map<String, AtomicLong> cursorLagByTenant = new ConcurrentHashMap<>();
+
+    // 요청 스레드에서 일어난 CacheService 메서드 호출 수, Redis 명령/왕복 수가 아니다
+    // 한 호출이 여러 명령을 보내거나(hasCached 는 EXISTS 두 번) near cache 처럼 Redis 를 거치지 않을 수 있다
+    private final ThreadLocal<long[]> cacheCalls = ThreadLocal.withInitial(() -> new long[1]);
+
+    public void read(String tenantId, String path, long nanos) {
+        Timer.builder("hierarchy.cache.read")
+          .tags("tenant", tenantId, "path", path)
+          .register(registry)
+          .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void lockWait(String tenantId, boolean acquired, long nanos) {
+        Timer.builder("hierarchy.cache.lock.wait")
+          .tags("tenant", tenantId, "result", acquired ? "acquired" : "timeout")
+          .register(registry)
+          .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void eventsApplied(String tenantId, long events) {
+        DistributionSummary.builder("hierarchy.cache.events.applied")
+          .tags("tenant", tenantId)
+          .register(registry)
+          .record(events);
+    }
+
+    public void reinitialize(String tenantId, String reason, long nanos) {
+        Timer.builder("hierarchy.cache.reinitialize")
+          .tags("tenant", tenantId, "reason", reason)
+          .register(registry)
+          .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void fallback(String tenantId, Exception cause, long nanos) {
+        Timer.builder("hierarchy.cache.fallback")
+          .tags("tenant", tenantId, "exception", cause.getClass().getSimpleName())
+          .register(registry)
+          .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // 커서와 high-water mark 는 TSID 라 id 차이 대신 발급 시각 차이(ms)로 보여준다
+    public void cursorLag(String tenantId, long cursor, long highWaterMark) {
+        long lag = cursor == 0 ? 0 : Math.max(0, millis(highWaterMark) - millis(cursor));
+        cursorLagByTenant.computeIfAbsent(tenantId, k -> registry.gauge("hierarchy.cache.cursor.lag",
+          Tags.of("tenant", k), new AtomicLong())).set(lag);
+    }
+
+    public void cacheCall() {
+        cacheCalls.get()[0]++;
+    }
+
+    public void beginRead() {
+        cacheCalls.get()[0] = 0;
+    }
+
+    public void endRead(String tenantId) {
+        DistributionSummary.builder("hierarchy.cache.service.calls.per.read")
+          .tags("tenant", tenantId)
+          .register(registry)
+          .record(cacheCalls.get()[0]);
+    }
+
+    private static long millis(long tsid) {
+        return Tsid.from(tsid).getUnixMilliseconds();
+    }
+}
@@ -0,0 +1,154 @@
+package com.nice1st.Hierarchy_Cache.metrics;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import com.nice1st.Hierarchy_Cache.cache.CacheService;
+import com.nice1st.Hierarchy_Cache.cache.ChildrenPage;
+import com.nice1st.Hierarchy_Cache.cache.HierarchyStats;
+import com.nice1st.Hierarchy_Cache.cache.HierarchyTree;
+import com.nice1st.Hierarchy_Cache.cache.SetOperation;
+import com.nice1st.Hierarchy_Cache.cache.SubtreeStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// 모든 CacheService 호출을 메서드별로 재고, 요청당 호출 수를 세도록 알린다
+public class MeteredCacheService implements CacheService {
+
+    private final CacheService delegate;
+
+    private final MeterRegistry registry;
+
+    private final HierarchyCacheMetrics metrics;
+
+    public MeteredCacheService(CacheService delegate, MeterRegistry registry, HierarchyCacheMetrics metrics) {
+        this.delegate = delegate;
+        this.registry = registry;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String getRootGroup() {
+        return delegate.getRootGroup();
+    }
+
+    @Override
+    public String getCursor(String tenantId) {
+        return record("getCursor", () -> delegate.getCursor(tenantId));
+    }
+
+    @Override
+    public void updateCursor(String tenantId, Long tsid) {
+        run("updateCursor", () -> delegate.updateCursor(tenantId, tsid));
+    }
+
+    @Override
+    public Optional<String> getHighWaterMark(String tenantId) {
+        return record("getHighWaterMark", () -> delegate.getHighWaterMark(tenantId));
+    }
+
+    @Override
+    public void advanceHighWaterMark(String tenantId, Long tsid) {
+        run("advanceHighWaterMark", () -> delegate.advanceHighWaterMark(tenantId, tsid));
+    }
+
+    @Override
+    public void initialize(String tenantId, HierarchyTree tree) {
+        run("initialize", () -> delegate.initialize(tenantId, tree));
+    }
+
+    @Override
+    public void deleteGroup(String tenantId, String groupId) {
+        run("deleteGroup", () -> delegate.deleteGroup(tenantId, groupId));
+    }
+
+    @Override
+    public void createGroup(String tenantId, String parentId, String id) {
+        run("createGroup", () -> delegate.createGroup(tenantId, parentId, id));
+    }
+
+    @Override
+    public void moveGroup(String tenantId, String newParentId, String targetId) {
+        run("moveGroup", () -> delegate.moveGroup(tenantId, newParentId, targetId));
+    }
+
+    @Override
+    public Set<String> getParents(String tenantId, String groupId) {
+        return record("getParents", () -> delegate.getParents(tenantId, groupId));
+    }
+
+    @Override
+    public Map<String, Set<String>> getParents(String tenantId, Collection<String> groupIds) {
+        return record("getParents", () -> delegate.getParents(tenantId, groupIds));
+    }
+
+    @Override
+    public Set<String> getChildren(String tenantId, String groupId) {
+        return record("getChildren", () -> delegate.getChildren(tenantId, groupId));
+    }
+
+    @Override
+    public Set<String> getChildren(String tenantId, String groupId, int maxDepth) {
+        return record("getChildren", () -> delegate.getChildren(tenantId, groupId, maxDepth));
+    }
+
+    @Override
+    public List<String> getPath(String tenantId, String groupId) {
+        return record("getPath", () -> delegate.getPath(tenantId, groupId));
+    }
+
+    @Override
+    public String pageSource() {
+        return delegate.pageSource();
+    }
+
+    @Override
+    public ChildrenPage getChildren(String tenantId, String groupId, String cursor, int limit) {
+        return record("getChildren", () -> delegate.getChildren(tenantId, groupId, cursor, limit));
+    }
+
+    @Override
+    public Set<String> combineChildren(String tenantId, List<String> groupIds, SetOperation operation) {
+        return record("combineChildren", () -> delegate.combineChildren(tenantId, groupIds, operation));
+    }
+
+    @Override
+    public Set<String> filterChildren(String tenantId, String groupId, Collection<String> candidateIds) {
+        return record("filterChildren", () -> delegate.filterChildren(tenantId, groupId, candidateIds));
+    }
+
+    @Override
+    public SubtreeStats getSubtreeStats(String tenantId, String groupId) {
+        return record("getSubtreeStats", () -> delegate.getSubtreeStats(tenantId, groupId));
+    }
+
+    @Override
+    public HierarchyStats getStats(String tenantId) {
+        return record("getStats", () -> delegate.getStats(tenantId));
+    }
+
+    @Override
+    public boolean hasCached(String tenantId, String groupId) {
+        return record("hasCached", () -> delegate.hasCached(tenantId, groupId));
+    }
+
+    private void run(String method, Runnable call) {
+        record(method, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    private <T> T record(String method, Supplier<T> call) {
+        metrics.cacheCall();
+        return Timer.builder("hierarchy.cache.call")
+          .tag("method", method)
+          .register(registry)
+          .record(call);
+    }
+}
@@ -1,8 +1,13 @@
 package com.nice1st.Hierarchy_Cache.repository;
 
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.nice1st.Hierarchy_Cache.domain.HierarchyGroupEvent;
@@ -10,5 +15,16 @@ import com.nice1st.Hierarchy_Cache.domain.HierarchyGroupEvent;
 @Repository
 public interface HierarchyGroupEventRepository extends JpaRepository<HierarchyGroupEvent, Long> {
 
-    List<HierarchyGroupEvent> findByTenantIdAndIdGreaterThanOrderById(String tenantId, Long id);
+    List<HierarchyGroupEvent> findByTenantIdAndIdGreaterThanOrderById(String tenantId, Long id, Limit limit);
+
+    long countByTenantIdAndIdGreaterThan(String tenantId, Long id);
+
+    Optional<HierarchyGroupEvent> findTopByTenantIdOrderByIdDesc(String tenantId);
+
+    long countByTenantId(String tenantId);
+
+    // 스냅샷에 반영된 이벤트를 한 번에 지운다
+    @Modifying
+    @Query("delete from HierarchyGroupEvent e where e.tenantId = :tenantId and e.id <= :id")
+    int deleteByTenantIdAndIdLessThanEqual(@Param("tenantId") String tenantId, @Param("id") Long id);
 }
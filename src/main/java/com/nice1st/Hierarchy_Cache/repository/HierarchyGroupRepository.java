@@ -1,11 +1,21 @@
 package com.nice1st.Hierarchy_Cache.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.nice1st.Hierarchy_Cache.domain.HierarchyGroup;
+import com.nice1st.Hierarchy_Cache.domain.HierarchyGroupEdge;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface HierarchyGroupRepository extends JpaRepository<HierarchyGroup, String> {
@@ -17,4 +27,64 @@ public interface HierarchyGroupRepository extends JpaRepository<HierarchyGroup,
     List<HierarchyGroup> findByParent(HierarchyGroup parent);
 
     int countByTenantId(String tenantId);
+
+    @Query("select distinct g.tenantId from HierarchyGroup g")
+    List<String> findDistinctTenantIds();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+      select new com.nice1st.Hierarchy_Cache.domain.HierarchyGroupEdge(g.id, p.id)
+      from HierarchyGroup g left join g.parent p
+      where g.tenantId = :tenantId
+      """)
+    Stream<HierarchyGroupEdge> streamEdgesByTenantId(@Param("tenantId") String tenantId);
+
+    // 자기 자신을 포함한 하위 전체 id 를 한 번의 쿼리로 조회
+    @Query(value = """
+      WITH RECURSIVE descendant(id) AS (
+          SELECT id FROM hierarchy_group WHERE id = :groupId
+          UNION ALL
+          SELECT g.id FROM hierarchy_group g JOIN descendant d ON g.parent_id = d.id
+      )
+      SELECT id FROM descendant
+      """, nativeQuery = true)
+    List<String> findDescendantIds(@Param("groupId") String groupId);
+
+    // 자기 자신을 포함해 maxDepth 레벨 아래까지
+    @Query(value = """
+      WITH RECURSIVE descendant(id, depth) AS (
+          SELECT id, 0 FROM hierarchy_group WHERE id = :groupId
+          UNION ALL
+          SELECT g.id, d.depth + 1 FROM hierarchy_group g JOIN descendant d ON g.parent_id = d.id
+          WHERE d.depth < :maxDepth
+      )
+      SELECT id FROM descendant
+      """, nativeQuery = true)
+    List<String> findDescendantIdsWithin(@Param("groupId") String groupId, @Param("maxDepth") int maxDepth);
+
+    // 자기 자신을 제외한 하위 중 after 보다 큰 id 를 id 순으로 limit 개, 폴백 페이지의 keyset
+    @Query(value = """
+      WITH RECURSIVE descendant(id) AS (
+          SELECT id FROM hierarchy_group WHERE parent_id = :groupId
+          UNION ALL
+          SELECT g.id FROM hierarchy_group g JOIN descendant d ON g.parent_id = d.id
+      )
+      SELECT id FROM descendant WHERE id > :after ORDER BY id LIMIT :limit
+      """, nativeQuery = true)
+    List<String> findDescendantIdsAfter(@Param("groupId") String groupId, @Param("after") String after,
+      @Param("limit") int limit);
+
+    // 자기 자신부터 루트까지, 가까운 조상 순
+    @Query(value = """
+      WITH RECURSIVE ancestor(id, parent_id, depth) AS (
+          SELECT id, parent_id, 0 FROM hierarchy_group WHERE id = :groupId
+          UNION ALL
+          SELECT g.id, g.parent_id, a.depth + 1 FROM hierarchy_group g JOIN ancestor a ON g.id = a.parent_id
+      )
+      SELECT id FROM ancestor ORDER BY depth
+      """, nativeQuery = true)
+    List<String> findAncestorIds(@Param("groupId") String groupId);
+
+    @Query("select g.id from HierarchyGroup g where g.parent.id in :parentIds")
+    List<String> findIdsByParentIdIn(@Param("parentIds") Collection<String> parentIds);
 }
@@ -0,0 +1,10 @@
+package com.nice1st.Hierarchy_Cache.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.nice1st.Hierarchy_Cache.domain.HierarchyGroupSnapshot;
+
+@Repository
+public interface HierarchyGroupSnapshotRepository extends JpaRepository<HierarchyGroupSnapshot, String> {
+}
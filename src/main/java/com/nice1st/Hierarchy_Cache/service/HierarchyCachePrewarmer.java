@@ -0,0 +1,71 @@
+package com.nice1st.Hierarchy_Cache.service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.nice1st.Hierarchy_Cache.repository.HierarchyGroupRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// 기동 시와 주기적으로 모든 테넌트의 캐시를 미리 초기화/따라잡기 해서, 첫 읽기가 전체 초기화 비용을 내지 않게 한다
+// 최근 읽기가 많은 테넌트부터, 동시에 concurrency 개까지 가상 스레드에서 처리한다
+@Slf4j
+@RequiredArgsConstructor
+public class HierarchyCachePrewarmer implements ApplicationRunner {
+
+    private final HierarchyGroupRepository repository;
+    private final HierarchyGroupReadService readService;
+    private final TenantTrafficTracker trafficTracker;
+    private final int concurrency;
+
+    // ApplicationRunner 가 끝나야 readiness 가 ACCEPTING_TRAFFIC 이 되므로 기동 시에는 완료까지 기다린다
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        prewarm();
+    }
+
+    @Scheduled(initialDelayString = "${hierarchy.cache.prewarm.interval}",
+      fixedDelayString = "${hierarchy.cache.prewarm.interval}")
+    public void scheduled() throws InterruptedException {
+        prewarm();
+    }
+
+    public void prewarm() throws InterruptedException {
+        List<String> tenantIds = orderByTraffic(repository.findDistinctTenantIds(), trafficTracker.drain());
+        Semaphore permits = new Semaphore(concurrency);
+
+        long started = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String tenantId : tenantIds) {
+                permits.acquire();
+                executor.submit(() -> {
+                    try {
+                        if (!readService.prewarm(tenantId)) {
+                            log.debug("[{}] prewarm skipped, lock is held", tenantId);
+                        }
+                    } catch (Exception e) {
+                        log.warn("[{}] prewarm failed", tenantId, e);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+        log.info("prewarmed {} tenants in {} ms", tenantIds.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    static List<String> orderByTraffic(List<String> tenantIds, Map<String, Long> readsByTenant) {
+        return tenantIds.stream()
+          .sorted(Comparator.comparingLong((String tenantId) -> readsByTenant.getOrDefault(tenantId, 0L)).reversed())
+          .toList();
+    }
+}
@@ -1,21 +1,43 @@
 package com.nice1st.Hierarchy_Cache.service;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.nice1st.Hierarchy_Cache.cache.CacheService;
+import com.nice1st.Hierarchy_Cache.cache.GroupIdRegistry;
+import com.nice1st.Hierarchy_Cache.config.HierarchyCacheProperties;
 import com.nice1st.Hierarchy_Cache.domain.HierarchyGroup;
 import com.nice1st.Hierarchy_Cache.domain.HierarchyGroupEvent;
 import com.nice1st.Hierarchy_Cache.repository.HierarchyGroupEventRepository;
 import com.nice1st.Hierarchy_Cache.repository.HierarchyGroupRepository;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class HierarchyGroupCommandService {
 
     private final HierarchyGroupRepository repository;
     private final HierarchyGroupEventRepository eventRepository;
+    private final CacheService cacheService;
+    private final HierarchyGroupReadService readService;
+    private final HierarchyCacheProperties properties;
+    // id-encoding=integer 일 때만 있다
+    private final ObjectProvider<GroupIdRegistry> groupIdRegistry;
+
+    // 새 테넌트는 캐시가 없어 첫 읽기에서 전체 초기화되므로 이벤트를 남기지 않는다
+    @Transactional
+    public HierarchyGroup createRoot(String tenantId) {
+        if (repository.findByTenantIdAndParentIsNull(tenantId) != null) {
+            throw new IllegalArgumentException("Tenant already exists: " + tenantId);
+        }
+        return repository.save(HierarchyGroup.newRoot(tenantId));
+    }
 
     @Transactional
     public HierarchyGroup create(String parentId) {
@@ -23,7 +45,7 @@ public class HierarchyGroupCommandService {
           .orElseThrow(() -> new IllegalArgumentException("Parent not found"));
 
         HierarchyGroup hierarchyGroup = repository.save(HierarchyGroup.newInstance(parent));
-        eventRepository.save(
+        saveEvent(
           HierarchyGroupEvent.builder()
             .tenantId(parent.getTenantId())
             .targetId(hierarchyGroup.getId())
@@ -40,7 +62,7 @@ public class HierarchyGroupCommandService {
           .orElseThrow(() -> new IllegalArgumentException("Not found"));
 
         repository.delete(hierarchyGroup);
-        eventRepository.save(
+        saveEvent(
           HierarchyGroupEvent.builder()
             .tenantId(hierarchyGroup.getTenantId())
             .targetId(hierarchyGroup.getId())
@@ -58,7 +80,7 @@ public class HierarchyGroupCommandService {
 
         String fromId = hierarchyGroup.getParentId();
         hierarchyGroup.move(parent);
-        eventRepository.save(
+        saveEvent(
           HierarchyGroupEvent.builder()
             .tenantId(hierarchyGroup.getTenantId())
             .targetId(hierarchyGroup.getId())
@@ -68,4 +90,37 @@ public class HierarchyGroupCommandService {
         );
         return hierarchyGroup;
     }
+
+    private void saveEvent(HierarchyGroupEvent event) {
+        HierarchyGroupEvent saved = eventRepository.save(event);
+        // 커밋 이후 테넌트 high-water mark 를 올려 읽기 측이 따라잡을 이벤트가 있음을 알린다
+        afterCommit(() -> syncCache(saved));
+    }
+
+    // 쓰기는 이미 커밋됐으므로 캐시 반영에 실패해도 요청을 실패시키지 않는다
+    // 뒤처진 high-water mark 와 미반영 이벤트는 다음 읽기가 보정/재생한다
+    private void syncCache(HierarchyGroupEvent saved) {
+        String tenantId = saved.getTenantId();
+        try {
+            cacheService.advanceHighWaterMark(tenantId, saved.getId());
+            // 읽기 측이 재생할 때 사전 조회만 하도록 새 그룹의 번호를 미리 발급한다
+            if (saved.getType() == HierarchyGroupEvent.EventType.CREATE) {
+                groupIdRegistry.ifAvailable(registry -> registry.intern(tenantId, saved.getTargetId()));
+            }
+            if (properties.getWriteThrough().isEnabled() && !readService.writeThrough(tenantId)) {
+                log.debug("[{}] write-through skipped, tenant lock is held", tenantId);
+            }
+        } catch (Exception e) {
+            log.warn("[{}] cache sync after commit failed, leaving it to the read path", tenantId, e);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 }
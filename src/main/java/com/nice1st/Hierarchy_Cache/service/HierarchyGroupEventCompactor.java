@@ -0,0 +1,73 @@
+package com.nice1st.Hierarchy_Cache.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.nice1st.Hierarchy_Cache.domain.HierarchyGroupEvent;
+
+@Component
+public class HierarchyGroupEventCompactor {
+
+    // targetId 별로 이벤트를 하나의 최종 결과로 접는다 (마지막 이벤트 순서 유지)
+    public List<HierarchyGroupEvent> compact(List<HierarchyGroupEvent> events) {
+        Map<String, HierarchyGroupEvent> firstByTarget = new HashMap<>();
+        Map<String, HierarchyGroupEvent> lastByTarget = new LinkedHashMap<>();
+        for (HierarchyGroupEvent event : events) {
+            firstByTarget.putIfAbsent(event.getTargetId(), event);
+            lastByTarget.remove(event.getTargetId());
+            lastByTarget.put(event.getTargetId(), event);
+        }
+
+        Map<String, HierarchyGroupEvent> netByTarget = new LinkedHashMap<>();
+        lastByTarget.forEach((targetId, last) -> netByTarget.put(targetId, fold(firstByTarget.get(targetId), last)));
+
+        List<HierarchyGroupEvent> compacted = new ArrayList<>(netByTarget.size());
+        Set<String> visited = new HashSet<>();
+        for (HierarchyGroupEvent event : netByTarget.values()) {
+            append(event, netByTarget, visited, compacted);
+        }
+        return compacted;
+    }
+
+    private HierarchyGroupEvent fold(HierarchyGroupEvent first, HierarchyGroupEvent last) {
+        if (first == last) {
+            return last;
+        }
+
+        // 생성 후 삭제는 DELETE 로 남긴다: 캐시에 없으면 적용 단계에서 건너뛰고,
+        // 중단된 이전 적용으로 남은 흔적이 있으면 지운다
+        boolean created = first.getType() == HierarchyGroupEvent.EventType.CREATE;
+        boolean deleted = last.getType() == HierarchyGroupEvent.EventType.DELETE;
+        String fromId = first.getFromId() != null ? first.getFromId() : last.getFromId();
+        return HierarchyGroupEvent.builder()
+          .id(last.getId())
+          .tenantId(last.getTenantId())
+          .targetId(last.getTargetId())
+          .fromId(created && !deleted ? null : fromId)
+          .toId(deleted ? null : last.getToId())
+          .build();
+    }
+
+    // 같은 batch 에서 생성/이동되는 부모가 있으면 부모를 먼저 적용
+    private void append(HierarchyGroupEvent event, Map<String, HierarchyGroupEvent> netByTarget, Set<String> visited,
+      List<HierarchyGroupEvent> compacted) {
+        if (!visited.add(event.getTargetId())) {
+            return;
+        }
+
+        if (event.getType() != HierarchyGroupEvent.EventType.DELETE) {
+            HierarchyGroupEvent parentEvent = netByTarget.get(event.getToId());
+            if (parentEvent != null) {
+                append(parentEvent, netByTarget, visited, compacted);
+            }
+        }
+        compacted.add(event);
+    }
+}
@@ -1,56 +1,132 @@
 package com.nice1st.Hierarchy_Cache.service;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.nice1st.Hierarchy_Cache.cache.CacheService;
+import com.nice1st.Hierarchy_Cache.cache.ChildrenPage;
+import com.nice1st.Hierarchy_Cache.cache.HierarchyStats;
+import com.nice1st.Hierarchy_Cache.cache.HierarchyTree;
+import com.nice1st.Hierarchy_Cache.cache.InvalidCursorException;
 import com.nice1st.Hierarchy_Cache.cache.LockService;
+import com.nice1st.Hierarchy_Cache.cache.SetOperation;
+import com.nice1st.Hierarchy_Cache.cache.SubtreeStats;
+import com.nice1st.Hierarchy_Cache.config.HierarchyCacheProperties;
 import com.nice1st.Hierarchy_Cache.domain.HierarchyGroup;
 import com.nice1st.Hierarchy_Cache.domain.HierarchyGroupEvent;
+import com.nice1st.Hierarchy_Cache.domain.HierarchyGroupSnapshot;
+import com.nice1st.Hierarchy_Cache.metrics.HierarchyCacheMetrics;
 import com.nice1st.Hierarchy_Cache.repository.HierarchyGroupEventRepository;
 import com.nice1st.Hierarchy_Cache.repository.HierarchyGroupRepository;
+import com.nice1st.Hierarchy_Cache.repository.HierarchyGroupSnapshotRepository;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class HierarchyGroupReadService {
 
     private final HierarchyGroupRepository repository;
     private final HierarchyGroupEventRepository eventRepository;
+    private final HierarchyGroupSnapshotRepository snapshotRepository;
     private final CacheService cacheService;
     private final LockService lockService;
+    private final HierarchyGroupEventCompactor eventCompactor;
+    private final HierarchyCacheProperties properties;
+    private final HierarchyTreeLoader treeLoader;
+    private final TenantTrafficTracker trafficTracker;
+    private final HierarchyCacheMetrics metrics;
 
     public long countByTenantId(String tenantId) {
         return repository.countByTenantId(tenantId);
     }
 
     public Set<String> recursiveIds(String groupId) {
+        return recursiveIds(groupId, Integer.MAX_VALUE);
+    }
+
+    // 자기 자신을 포함해 maxDepth 레벨 아래까지
+    public Set<String> recursiveIds(String groupId, int maxDepth) {
+        HierarchyCacheProperties.Fallback fallback = properties.getFallback();
+        if (fallback.isRecursiveQuery()) {
+            return new HashSet<>(maxDepth == Integer.MAX_VALUE
+              ? repository.findDescendantIds(groupId)
+              : repository.findDescendantIdsWithin(groupId, maxDepth));
+        }
+
         Set<String> ids = new HashSet<>();
+        if (repository.existsById(groupId)) {
+            ids.add(groupId);
+            levelByLevelIds(ids, List.of(groupId), fallback.getInBatchSize(), maxDepth);
+        }
+        return ids;
+    }
 
-        repository.findById(groupId)
-          .ifPresent(hierarchyGroup -> {
-              ids.add(hierarchyGroup.getId());
-              recursiveIds(ids, hierarchyGroup);
-          });
+    // 자기 자신을 제외한 조상, 가까운 순
+    public Set<String> ancestorIds(String groupId) {
+        Set<String> ids = new LinkedHashSet<>();
+        if (properties.getFallback().isRecursiveQuery()) {
+            ids.addAll(repository.findAncestorIds(groupId));
+            ids.remove(groupId);
+            return ids;
+        }
+
+        HierarchyGroup parent = repository.findById(groupId).map(HierarchyGroup::getParent).orElse(null);
+        while (parent != null && ids.add(parent.getId())) {
+            parent = parent.getParent();
+        }
+        return ids;
+    }
 
+    // 최상위 그룹부터 자기 자신까지
+    private List<String> pathIds(String groupId) {
+        List<String> ids = new ArrayList<>(ancestorIds(groupId));
+        Collections.reverse(ids);
+        ids.add(groupId);
         return ids;
     }
 
-    private void recursiveIds(Set<String> ids, HierarchyGroup parent) {
-        List<HierarchyGroup> byParentId = repository.findByParent(parent);
-        for (HierarchyGroup child : byParentId) {
-            ids.add(child.getId());
-            recursiveIds(ids, child);
+    // CTE 미지원 DB 용: 한 레벨씩 parent_id IN (...) 으로 내려간다, 내려간 레벨 수를 반환
+    private int levelByLevelIds(Set<String> ids, List<String> level, int batchSize, int maxDepth) {
+        int height = 0;
+        while (height < maxDepth) {
+            List<String> next = new ArrayList<>();
+            for (int from = 0; from < level.size(); from += batchSize) {
+                List<String> parentIds = level.subList(from, Math.min(from + batchSize, level.size()));
+                for (String childId : repository.findIdsByParentIdIn(parentIds)) {
+                    if (ids.add(childId)) {
+                        next.add(childId);
+                    }
+                }
+            }
+            if (next.isEmpty()) {
+                break;
+            }
+            height++;
+            level = next;
         }
+        return height;
     }
 
     public Set<String> reBuild(String groupId) {
@@ -58,100 +134,421 @@ public class HierarchyGroupReadService {
 
         repository.findById(groupId)
           .ifPresent(hierarchyGroup -> {
-              Map<String, List<HierarchyGroup>> map = getGroupedByParent(hierarchyGroup.getTenantId());
+              HierarchyTree tree = treeLoader.load(hierarchyGroup.getTenantId());
 
               ids.add(groupId);
-              reBuild(map, ids, groupId);
+              reBuild(tree, ids, tree.indexOf(groupId));
           });
 
         return ids;
     }
 
-    public Map<String, List<HierarchyGroup>> getGroupedByParent(String tenantId) {
-        List<HierarchyGroup> allHierarchyGroups = repository.findByTenantId(tenantId);
-        return groupByParent(allHierarchyGroups);
+    // 폴백: 한 레벨씩 내려가며 하위 수와 높이를 센다
+    private SubtreeStats subtreeStats(String groupId) {
+        Set<String> ids = new HashSet<>(Set.of(groupId));
+        int height = levelByLevelIds(ids, List.of(groupId), properties.getFallback().getInBatchSize(),
+          Integer.MAX_VALUE);
+        return new SubtreeStats(ids.size() - 1, height);
+    }
+
+    private void reBuild(HierarchyTree tree, Set<String> ids, int parent) {
+        for (int i = 0; i < tree.childCount(parent); i++) {
+            int child = tree.child(parent, i);
+            ids.add(tree.id(child));
+            reBuild(tree, ids, child);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Set<String> read(String groupId) {
+        return read(groupId, cacheService::getChildren, this::recursiveIds);
+    }
+
+    // maxDepth 레벨 아래까지, 1 이면 직속 자식만
+    @Transactional(readOnly = true)
+    public Set<String> read(String groupId, int maxDepth) {
+        return read(groupId, (tenantId, id) -> cacheService.getChildren(tenantId, id, maxDepth),
+          id -> descendantIds(id, maxDepth));
+    }
+
+    @Transactional(readOnly = true)
+    public List<String> readPath(String groupId) {
+        return read(groupId, cacheService::getPath, this::pathIds);
+    }
+
+    // 커서에는 위치를 만든 저장소가 붙어 있다. DB 에서 시작한 순회는 캐시가 살아나도 DB 로 이어가고,
+    // 캐시 커서로 읽다가 DB 폴백을 하게 되면 이어 읽을 위치가 없으므로 거절해 처음부터 다시 읽게 한다
+    @Transactional(readOnly = true)
+    public ChildrenPage readPage(String groupId, String cursor, int limit) {
+        PageCursor position = cursor != null ? PageCursor.decode(cursor) : null;
+        if (position != null && position.source().equals(PageCursor.DB)) {
+            if (!repository.existsById(groupId)) {
+                throw new IllegalArgumentException("Group not found: " + groupId);
+            }
+            return PageCursor.tag(PageCursor.DB, descendantPage(groupId, position.position(), limit));
+        }
+
+        String source = cacheService.pageSource();
+        if (position != null && !position.source().equals(source)) {
+            throw new InvalidCursorException("Cursor from " + position.source() + " cannot continue on " + source
+              + ", restart from the first page");
+        }
+        String after = position != null ? position.position() : null;
+        return read(groupId,
+          (tenantId, id) -> PageCursor.tag(source, cacheService.getChildren(tenantId, id, after, limit)),
+          id -> {
+              if (after != null) {
+                  throw new InvalidCursorException("Cursor from " + source
+                    + " cannot continue on the DB fallback, restart from the first page");
+              }
+              return PageCursor.tag(PageCursor.DB, descendantPage(id, null, limit));
+          });
+    }
+
+    // 자기 자신을 제외한 하위의 id 순 keyset 페이지, after 는 직전 페이지의 마지막 id
+    // CTE 로 limit + 1 개만 읽어 다음 페이지가 있는지 판단한다
+    private ChildrenPage descendantPage(String groupId, String after, int limit) {
+        if (!properties.getFallback().isRecursiveQuery()) {
+            return page(descendantIds(groupId), after, limit);
+        }
+
+        List<String> ids = repository.findDescendantIdsAfter(groupId, after != null ? after : "", limit + 1);
+        if (ids.size() <= limit) {
+            return new ChildrenPage(ids, null);
+        }
+        List<String> page = ids.subList(0, limit);
+        return new ChildrenPage(List.copyOf(page), page.getLast());
+    }
+
+    // CTE 미지원 DB 용: 한 레벨씩 모은 하위 전체를 정렬해 자른다
+    static ChildrenPage page(Set<String> ids, String cursor, int limit) {
+        List<String> remaining = ids.stream().filter(id -> cursor == null || id.compareTo(cursor) > 0).sorted()
+          .toList();
+        List<String> page = new ArrayList<>(remaining.subList(0, Math.min(limit, remaining.size())));
+        return new ChildrenPage(page, remaining.size() > limit ? page.getLast() : null);
     }
 
-    private Map<String, List<HierarchyGroup>> groupByParent(List<HierarchyGroup> allHierarchyGroups) {
-        return allHierarchyGroups.stream()
-          .collect(Collectors.groupingBy(hierarchyGroup ->
-            hierarchyGroup.getParent() != null ? hierarchyGroup.getParent().getId() : cacheService.getRootGroup())
-          );
+    @Transactional(readOnly = true)
+    public Set<String> readAncestors(String groupId) {
+        return read(groupId, cacheService::getParents, this::ancestorIds);
     }
 
-    private void reBuild(Map<String, List<HierarchyGroup>> map, Set<String> ids, String parentId) {
-        map.getOrDefault(parentId, Collections.emptyList()).forEach(child -> {
-            ids.add(child.getId());
-            reBuild(map, ids, child.getId());
+    // candidateIds 중 groupId 하위에 속한 것만 반환
+    @Transactional(readOnly = true)
+    public Set<String> filterDescendants(String groupId, Collection<String> candidateIds) {
+        return read(groupId, (tenantId, id) -> cacheService.filterChildren(tenantId, id, candidateIds), id -> {
+            Set<String> filtered = new LinkedHashSet<>(candidateIds);
+            filtered.retainAll(descendantIds(id));
+            return filtered;
         });
     }
 
     @Transactional(readOnly = true)
-    public Set<String> read(String groupId) {
+    public SubtreeStats readSubtreeStats(String groupId) {
+        return read(groupId, cacheService::getSubtreeStats, this::subtreeStats);
+    }
+
+    @Transactional(readOnly = true)
+    public HierarchyStats readStats(String tenantId) {
+        HierarchyGroup rootGroup = repository.findByTenantIdAndParentIsNull(tenantId);
+        if (rootGroup == null) {
+            throw new IllegalArgumentException("Tenant not found: " + tenantId);
+        }
+        return read(tenantId, rootGroup.getId(), () -> cacheService.getStats(tenantId), () -> {
+            HierarchyTree tree = treeLoader.load(tenantId);
+            return HierarchyStats.of(tree.groupsByDepth(), tree.groupsByFanOut());
+        });
+    }
+
+    // 여러 그룹의 하위 집합을 캐시 쪽에서 합친다, 따라잡기는 테넌트마다 한 번
+    @Transactional(readOnly = true)
+    public Set<String> combine(List<String> groupIds, SetOperation operation) {
+        Map<String, List<String>> groupIdsByTenant = groupIdsByTenant(groupIds);
+        if (groupIdsByTenant.isEmpty()) {
+            return new HashSet<>();
+        }
+        // 테넌트가 다르면 하위 집합이 겹치지 않으므로 교집합은 비고, 차집합은 첫 그룹의 테넌트만 남는다
+        if (operation == SetOperation.INTERSECTION && groupIdsByTenant.size() > 1) {
+            return new HashSet<>();
+        }
+        if (operation == SetOperation.DIFFERENCE) {
+            groupIdsByTenant.keySet().retainAll(Set.of(groupIdsByTenant.keySet().iterator().next()));
+        }
+
+        List<Set<String>> results = new ArrayList<>();
+        groupIdsByTenant.forEach((tenantId, ids) -> results.add(read(tenantId, ids.getFirst(),
+          () -> cacheService.combineChildren(tenantId, ids, operation),
+          () -> operation.apply(ids.stream().map(this::descendantIds).toList()))));
+        return results.size() == 1 ? results.getFirst() : SetOperation.UNION.apply(results);
+    }
+
+    // 그룹을 한 번의 조회로 읽어 요청 순서대로 테넌트별로 나눈다
+    private Map<String, List<String>> groupIdsByTenant(List<String> groupIds) {
+        Map<String, String> tenantByGroup = new HashMap<>();
+        for (HierarchyGroup group : repository.findAllById(groupIds)) {
+            tenantByGroup.put(group.getId(), group.getTenantId());
+        }
+
+        Map<String, List<String>> groupIdsByTenant = new LinkedHashMap<>();
+        for (String groupId : groupIds) {
+            String tenantId = tenantByGroup.get(groupId);
+            if (tenantId == null) {
+                throw new IllegalArgumentException("Group not found: " + groupId);
+            }
+            groupIdsByTenant.computeIfAbsent(tenantId, k -> new ArrayList<>()).add(groupId);
+        }
+        return groupIdsByTenant;
+    }
+
+    // 자기 자신을 제외한 DB 의 하위 전체
+    private Set<String> descendantIds(String groupId) {
+        return descendantIds(groupId, Integer.MAX_VALUE);
+    }
+
+    private Set<String> descendantIds(String groupId, int maxDepth) {
+        Set<String> ids = recursiveIds(groupId, maxDepth);
+        ids.remove(groupId);
+        return ids;
+    }
+
+    // 캐시를 미반영 이벤트까지 따라잡은 뒤 query 로 조회하고, 실패하면 fallback 으로 DB 에서 만든다
+    private <T> T read(String groupId, BiFunction<String, String, T> query, Function<String, T> fallback) {
         HierarchyGroup group = repository.findById(groupId)
           .orElseThrow(() -> new IllegalArgumentException("Group not found: " + groupId));
 
         String tenantId = group.getTenantId();
-        String lockKey = lockService.getLockKey(tenantId);
-        boolean locked = lockService.tryLock(lockKey, Duration.ofMinutes(1), Duration.ofSeconds(30));
+        return read(tenantId, groupId, () -> query.apply(tenantId, groupId), () -> fallback.apply(groupId));
+    }
 
+    // 빠른 경로 판단과 로그에는 groupId 를 쓰고, 락/따라잡기는 테넌트 단위로 한 번 한다
+    private <T> T read(String tenantId, String groupId, Supplier<T> query, Supplier<T> fallback) {
+        trafficTracker.record(tenantId);
+        metrics.beginRead();
+        long started = System.nanoTime();
+        String path = "fast";
         try {
-            if (!locked) {
-                throw new RuntimeException("lock 획득 실패");
+            try {
+                if (isCaughtUp(tenantId, groupId)) {
+                    return query.get();
+                }
+            } catch (Exception e) {
+                path = "fallback";
+                return fallback(tenantId, groupId, fallback, e);
             }
 
-            String cursor = cacheService.getCursor(tenantId);
-            List<HierarchyGroupEvent> events = eventRepository.findByTenantIdAndIdGreaterThanOrderById(tenantId, Long.parseLong(cursor));
-            if (!hasInitialized(tenantId)) {
-                cacheInitialize(tenantId);
-            } else {
-                processEvents(events, tenantId);
+            path = "catch-up";
+            String lockKey = lockService.getLockKey(tenantId);
+            long lockStarted = System.nanoTime();
+            boolean locked = lockService.tryLock(lockKey, Duration.ofMinutes(1), Duration.ofSeconds(30));
+            metrics.lockWait(tenantId, locked, System.nanoTime() - lockStarted);
+
+            try {
+                if (!locked) {
+                    throw new IllegalStateException("lock 획득 실패");
+                }
+
+                long cursor = Long.parseLong(cacheService.getCursor(tenantId));
+                long position = catchUp(tenantId, cursor);
+                // high-water mark 가 유실된 경우에도 다음 읽기부터 fast path 를 탈 수 있도록 보정
+                cacheService.advanceHighWaterMark(tenantId, position);
+
+                return query.get();
+            } catch (Exception e) {
+                path = "fallback";
+                return fallback(tenantId, groupId, fallback, e);
+            } finally {
+                lockService.unlock(lockKey);
             }
-            updateCursor(tenantId, events);
+        } finally {
+            metrics.endRead(tenantId);
+            metrics.read(tenantId, path, System.nanoTime() - started);
+        }
+    }
+
+    private <T> T fallback(String tenantId, String groupId, Supplier<T> fallback, Exception e) {
+        // 잘못된 커서는 DB 로 답해도 이어 읽을 수 없으므로 그대로 돌려준다
+        if (e instanceof InvalidCursorException invalid) {
+            throw invalid;
+        }
+        log.warn("[{}] cache read failed for {}, falling back to DB", tenantId, groupId, e);
+        long fallbackStarted = System.nanoTime();
+        T result = fallback.get();
+        metrics.fallback(tenantId, e, System.nanoTime() - fallbackStarted);
+        return result;
+    }
+
+    // 다른 곳에서 락을 잡고 있으면 그쪽이 따라잡는 중이므로 기다리지 않고 false
+    @Transactional(readOnly = true)
+    public boolean prewarm(String tenantId) {
+        return tryCatchUp(tenantId, Duration.ZERO);
+    }
+
+    // 쓰기 커밋 직후 afterCommit 에서 호출된다, 끝난 트랜잭션의 자원이 아직 묶여 있으므로 새 트랜잭션에서 읽는다
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public boolean writeThrough(String tenantId) {
+        return tryCatchUp(tenantId, properties.getWriteThrough().getLockWait());
+    }
+
+    private boolean tryCatchUp(String tenantId, Duration wait) {
+        String lockKey = lockService.getLockKey(tenantId);
+        if (!lockService.tryLock(lockKey, Duration.ofMinutes(1), wait)) {
+            return false;
+        }
 
-            return cacheService.getChildren(tenantId, groupId);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return reBuild(groupId);
+        try {
+            long cursor = Long.parseLong(cacheService.getCursor(tenantId));
+            cacheService.advanceHighWaterMark(tenantId, catchUp(tenantId, cursor));
+            return true;
         } finally {
             lockService.unlock(lockKey);
         }
     }
 
+    // 커서가 high-water mark 와 같으면 적용할 이벤트가 없으므로 락 없이 읽는다
+    private boolean isCaughtUp(String tenantId, String groupId) {
+        String cursor = cacheService.getCursor(tenantId);
+        Optional<String> highWaterMark = cacheService.getHighWaterMark(tenantId);
+        highWaterMark.ifPresent(mark -> metrics.cursorLag(tenantId, Long.parseLong(cursor), Long.parseLong(mark)));
+        return highWaterMark.filter(cursor::equals).isPresent() && cacheService.hasCached(tenantId, groupId);
+    }
+
+    // 락 안에서만 불리므로 시작할 때 남아 있는 미확정 변경은 앞선 따라잡기가 실패하며 남긴 것이다
+    // 실패할 때도 버려, 반쯤 적용된 캐시를 다음 빠른 경로가 읽지 않게 한다
+    private long catchUp(String tenantId, long cursor) {
+        cacheService.discardPending(tenantId);
+        try {
+            return replay(tenantId, cursor);
+        } catch (RuntimeException e) {
+            cacheService.discardPending(tenantId);
+            throw e;
+        }
+    }
+
+    // 미반영 이벤트를 페이지 단위로 적용하고 페이지마다 커서를 옮겨, 중간에 실패해도 진행분이 남는다
+    // 반영을 마친 마지막 이벤트 id 를 반환
+    private long replay(String tenantId, long cursor) {
+        Optional<HierarchyGroupSnapshot> snapshot = snapshotRepository.findById(tenantId);
+        boolean initialized = hasInitialized(tenantId);
+        // 스냅샷 이하의 이벤트는 지워졌으므로 커서가 그보다 뒤처졌으면 스냅샷부터 다시 시작한다
+        if (snapshot.isPresent() && (!initialized || cursor < snapshot.get().getEventId())) {
+            cursor = restore(tenantId, snapshot.get(), initialized ? "snapshot-behind" : "snapshot");
+        } else if (!initialized) {
+            return reinitialize(tenantId, cursor, "uninitialized");
+        }
+
+        int pageSize = properties.getCatchUp().getPageSize();
+        long position = cursor;
+        long applied = 0;
+        try {
+            while (true) {
+                List<HierarchyGroupEvent> events = eventRepository.findByTenantIdAndIdGreaterThanOrderById(tenantId,
+                  position, Limit.of(pageSize));
+                if (events.isEmpty()) {
+                    return position;
+                }
+                // 첫 페이지가 가득 찼을 때만 전체 backlog 를 세어 비용을 비교한다
+                if (position == cursor && events.size() == pageSize && isCheaperToReinitialize(tenantId, cursor)) {
+                    return reinitialize(tenantId, cursor, "backlog");
+                }
+                if (!processEvents(events, tenantId)) {
+                    return reinitialize(tenantId, cursor, "cache-miss");
+                }
+
+                applied += events.size();
+                position = events.getLast().getId();
+                cacheService.updateCursor(tenantId, position);
+                if (events.size() < pageSize) {
+                    return position;
+                }
+            }
+        } finally {
+            metrics.eventsApplied(tenantId, applied);
+        }
+    }
+
+    // 밀린 이벤트가 테넌트 크기에 비해 많으면 하나씩 재생하는 것보다 전체 초기화가 싸다
+    private boolean isCheaperToReinitialize(String tenantId, long cursor) {
+        long backlog = eventRepository.countByTenantIdAndIdGreaterThan(tenantId, cursor);
+        return backlog > repository.countByTenantId(tenantId) * properties.getCatchUp().getReinitializeRatio();
+    }
+
+    // 최신 이벤트 id 를 먼저 읽은 뒤 트리를 적재하므로, 그 id 까지의 변경은 모두 스냅샷에 들어 있다
+    // 이벤트가 모두 스냅샷으로 접혔으면 스냅샷 id 까지 반영된 것이다
+    private long reinitialize(String tenantId, long cursor, String reason) {
+        long started = System.nanoTime();
+        log.info("[{}] reinitializing cache ({})", tenantId, reason);
+        long latest = eventRepository.findTopByTenantIdOrderByIdDesc(tenantId)
+          .map(HierarchyGroupEvent::getId)
+          .or(() -> snapshotRepository.findById(tenantId).map(HierarchyGroupSnapshot::getEventId))
+          .orElse(cursor);
+        cacheInitialize(tenantId);
+        // 커서가 그대로여도 옮긴다, 스냅샷 저장소는 이때 트리와 커서를 함께 쓴다
+        long position = Math.max(latest, cursor);
+        cacheService.updateCursor(tenantId, position);
+        metrics.reinitialize(tenantId, reason, System.nanoTime() - started);
+        return position;
+    }
+
+    // 트리를 DB 에서 다시 읽지 않고 스냅샷으로 적재한다, 이후 이벤트는 호출 측이 재생한다
+    private long restore(String tenantId, HierarchyGroupSnapshot snapshot, String reason) {
+        long started = System.nanoTime();
+        log.info("[{}] restoring cache from snapshot at {} ({})", tenantId, snapshot.getEventId(), reason);
+        cacheService.initialize(tenantId, HierarchyTree.fromBytes(snapshot.getTree()));
+        cacheService.updateCursor(tenantId, snapshot.getEventId());
+        metrics.reinitialize(tenantId, reason, System.nanoTime() - started);
+        return snapshot.getEventId();
+    }
+
     private boolean hasInitialized(String tenantId) {
         HierarchyGroup rootGroup = repository.findByTenantIdAndParentIsNull(tenantId);
         return cacheService.hasCached(tenantId, rootGroup.getId());
     }
 
     private void cacheInitialize(String tenantId) {
-        cacheService.initialize(tenantId, getGroupedByParent(tenantId));
+        cacheService.initialize(tenantId, treeLoader.load(tenantId));
     }
 
-    private void processEvents(List<HierarchyGroupEvent> events, String tenantId) {
-        for (HierarchyGroupEvent event : events) {
-            boolean hasParent = cacheService.hasCached(tenantId, event.getToId());
-            if (!hasParent) {
-                cacheInitialize(tenantId);
-                break;
+    // 캐시에 없는 부모가 나오면 false, 호출 측이 전체 초기화한다
+    private boolean processEvents(List<HierarchyGroupEvent> events, String tenantId) {
+        List<HierarchyGroupEvent> compacted = eventCompactor.compact(events);
+        if (compacted.isEmpty()) {
+            return true;
+        }
+
+        // 적용 전 상태를 한 번에 조회해 이미 반영된 이벤트를 건너뛴다
+        Set<String> targetIds = compacted.stream().map(HierarchyGroupEvent::getTargetId).collect(Collectors.toSet());
+        Map<String, Set<String>> parentsByTarget = cacheService.getParents(tenantId, targetIds);
+
+        Set<String> checkedParents = new HashSet<>(targetIds);
+        // 이 페이지에서 이미 옮기거나 지운 그룹, 이들이 조상에 있던 대상은 미리 읽은 조상이 낡았으므로 다시 읽는다
+        Set<String> restructured = new HashSet<>();
+        for (HierarchyGroupEvent event : compacted) {
+            if (event.getType() != HierarchyGroupEvent.EventType.DELETE && checkedParents.add(event.getToId())
+              && !cacheService.hasCached(tenantId, event.getToId())) {
+                return false;
             }
 
-            boolean isCached = compareParent(tenantId, event);
+            Set<String> parents = parentsByTarget.get(event.getTargetId());
+            if (parents != null && !restructured.isEmpty() && !Collections.disjoint(parents, restructured)) {
+                parents = cacheService.getParents(tenantId, event.getTargetId());
+            }
+            boolean isCached = compareParent(parents, event);
             if (isCached) {
                 continue;
             }
 
             applyEventToCache(tenantId, event);
+            if (event.getType() != HierarchyGroupEvent.EventType.CREATE) {
+                restructured.add(event.getTargetId());
+            }
         }
+        return true;
     }
 
-    private void updateCursor(String tenantId, List<HierarchyGroupEvent> events) {
-        if (!events.isEmpty()) {
-            cacheService.updateCursor(tenantId, events.getLast().getId());
+    private boolean compareParent(Set<String> parents, HierarchyGroupEvent event) {
+        if (parents == null) {
+            parents = Collections.emptySet();
         }
-    }
-
-    private boolean compareParent(String tenantId, HierarchyGroupEvent event) {
-        Set<String> parents = cacheService.getParents(tenantId, event.getTargetId());
         HierarchyGroupEvent.EventType type = event.getType();
         return switch (type) {
             case CREATE, UPDATE -> parents.contains(event.getToId());
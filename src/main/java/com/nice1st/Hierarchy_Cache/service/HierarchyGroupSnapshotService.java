@@ -0,0 +1,64 @@
+package com.nice1st.Hierarchy_Cache.service;
+
+import java.time.Duration;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.nice1st.Hierarchy_Cache.cache.LockService;
+import com.nice1st.Hierarchy_Cache.config.HierarchyCacheProperties;
+import com.nice1st.Hierarchy_Cache.domain.HierarchyGroupEvent;
+import com.nice1st.Hierarchy_Cache.domain.HierarchyGroupSnapshot;
+import com.nice1st.Hierarchy_Cache.repository.HierarchyGroupEventRepository;
+import com.nice1st.Hierarchy_Cache.repository.HierarchyGroupSnapshotRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// 테넌트 트리를 스냅샷으로 남기고 그 이하의 이벤트를 지운다
+// 캐시가 비었거나 커서가 스냅샷보다 뒤처진 인스턴스는 스냅샷을 적재하고 남은 꼬리만 재생한다
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HierarchyGroupSnapshotService {
+
+    private final HierarchyGroupEventRepository eventRepository;
+    private final HierarchyGroupSnapshotRepository snapshotRepository;
+    private final HierarchyTreeLoader treeLoader;
+    private final LockService lockService;
+    private final HierarchyCacheProperties properties;
+
+    // 쌓인 이벤트가 적거나 다른 곳에서 따라잡는 중이면 false
+    // 따라잡기가 페이지를 읽는 도중 이벤트가 지워지지 않도록 테넌트 락을 잡고 하고,
+    // 락은 커밋(또는 롤백) 뒤에 풀어 스냅샷 없이 삭제만 보이는 순간이 없게 한다
+    @Transactional
+    public boolean snapshot(String tenantId) {
+        if (eventRepository.countByTenantId(tenantId) < properties.getEventSnapshot().getMinEvents()) {
+            return false;
+        }
+
+        String lockKey = lockService.getLockKey(tenantId);
+        if (!lockService.tryLock(lockKey, Duration.ofMinutes(1), Duration.ZERO)) {
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lockService.unlock(lockKey);
+            }
+        });
+
+        long started = System.nanoTime();
+        // 최신 이벤트 id 를 먼저 읽은 뒤 트리를 적재하므로, 그 id 까지의 변경은 모두 스냅샷에 들어 있다
+        Long eventId = eventRepository.findTopByTenantIdOrderByIdDesc(tenantId)
+          .map(HierarchyGroupEvent::getId)
+          .orElseThrow();
+        snapshotRepository.save(new HierarchyGroupSnapshot(tenantId, eventId, treeLoader.load(tenantId).toBytes()));
+        int deleted = eventRepository.deleteByTenantIdAndIdLessThanEqual(tenantId, eventId);
+        log.info("[{}] snapshot at {}, {} events compacted in {} ms", tenantId, eventId, deleted,
+          (System.nanoTime() - started) / 1_000_000);
+        return true;
+    }
+}
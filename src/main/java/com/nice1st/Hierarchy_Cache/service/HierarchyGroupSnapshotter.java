@@ -0,0 +1,33 @@
+package com.nice1st.Hierarchy_Cache.service;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.nice1st.Hierarchy_Cache.repository.HierarchyGroupRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// 주기적으로 이벤트가 쌓인 테넌트를 스냅샷으로 접어 이벤트 테이블과 콜드 재생 비용이 자라지 않게 한다
+@Slf4j
+@RequiredArgsConstructor
+public class HierarchyGroupSnapshotter {
+
+    private final HierarchyGroupRepository repository;
+    private final HierarchyGroupSnapshotService snapshotService;
+
+    @Scheduled(initialDelayString = "${hierarchy.cache.event-snapshot.interval}",
+      fixedDelayString = "${hierarchy.cache.event-snapshot.interval}")
+    public void snapshot() {
+        int snapshotted = 0;
+        for (String tenantId : repository.findDistinctTenantIds()) {
+            try {
+                if (snapshotService.snapshot(tenantId)) {
+                    snapshotted++;
+                }
+            } catch (Exception e) {
+                log.warn("[{}] snapshot failed", tenantId, e);
+            }
+        }
+        log.info("snapshotted {} tenants", snapshotted);
+    }
+}
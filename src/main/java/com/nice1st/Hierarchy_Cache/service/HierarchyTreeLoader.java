@@ -0,0 +1,29 @@
+package com.nice1st.Hierarchy_Cache.service;
+
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.nice1st.Hierarchy_Cache.cache.HierarchyTree;
+import com.nice1st.Hierarchy_Cache.domain.HierarchyGroupEdge;
+import com.nice1st.Hierarchy_Cache.repository.HierarchyGroupRepository;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class HierarchyTreeLoader {
+
+    private final HierarchyGroupRepository repository;
+
+    // 엔티티를 영속성 컨텍스트에 올리지 않고 (id, parent_id) 만 스트리밍으로 읽는다
+    @Transactional(readOnly = true)
+    public HierarchyTree load(String tenantId) {
+        HierarchyTree.Builder builder = HierarchyTree.builder();
+        try (Stream<HierarchyGroupEdge> edges = repository.streamEdgesByTenantId(tenantId)) {
+            edges.forEach(edge -> builder.add(edge.id(), edge.parentId()));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,42 @@
+package com.nice1st.Hierarchy_Cache.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.nice1st.Hierarchy_Cache.cache.ChildrenPage;
+import com.nice1st.Hierarchy_Cache.cache.InvalidCursorException;
+
+// 클라이언트에 내보내는 페이지 커서, 위치를 만든 저장소 이름을 붙여 base64url 로 감싼다
+// 위치의 의미는 저장소마다 다르므로(ZSCAN 커서, 비트맵 번호, 그룹 id, DB keyset) 다른 저장소에 넘기지 않는다
+record PageCursor(String source, String position) {
+
+    static final String DB = "db";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    String encode() {
+        return ENCODER.encodeToString((source + ":" + position).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static PageCursor decode(String cursor) {
+        String decoded;
+        try {
+            decoded = new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Malformed cursor: " + cursor);
+        }
+        int separator = decoded.indexOf(':');
+        if (separator <= 0) {
+            throw new InvalidCursorException("Malformed cursor: " + cursor);
+        }
+        return new PageCursor(decoded.substring(0, separator), decoded.substring(separator + 1));
+    }
+
+    // 저장소가 돌려준 위치를 감싼다, 마지막 페이지면 그대로 null
+    static ChildrenPage tag(String source, ChildrenPage page) {
+        return page.nextCursor() == null ? page
+          : new ChildrenPage(page.ids(), new PageCursor(source, page.nextCursor()).encode());
+    }
+}
@@ -0,0 +1,31 @@
+package com.nice1st.Hierarchy_Cache.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+// 테넌트별 읽기 횟수, 프리워밍 순서를 정하는 데 쓴다
+@Component
+public class TenantTrafficTracker {
+
+    private final Map<String, LongAdder> readsByTenant = new ConcurrentHashMap<>();
+
+    public void record(String tenantId) {
+        readsByTenant.computeIfAbsent(tenantId, k -> new LongAdder()).increment();
+    }
+
+    // 직전 호출 이후의 읽기 횟수를 돌려주고 0 으로 되돌린다
+    public Map<String, Long> drain() {
+        Map<String, Long> snapshot = new HashMap<>();
+        readsByTenant.forEach((tenantId, reads) -> {
+            long sum = reads.sumThenReset();
+            if (sum > 0) {
+                snapshot.put(tenantId, sum);
+            }
+        });
+        return snapshot;
+    }
+}
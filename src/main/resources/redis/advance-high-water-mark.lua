@@ -0,0 +1,14 @@
+-- KEYS[1]: high-water mark
+-- ARGV[1]: tsid
+-- TSID 는 Lua number(double) 로 정밀도가 부족하므로 자릿수, 문자열 순으로 비교한다
+local next = cjson.decode(ARGV[1])
+local current = redis.call('GET', KEYS[1])
+if current then
+    current = cjson.decode(current)
+    if #current > #next or (#current == #next and current >= next) then
+        return 0
+    end
+end
+
+redis.call('SET', KEYS[1], ARGV[1])
+return 1
@@ -0,0 +1,62 @@
+-- 모든 스크립트 앞에 붙는 공통 함수
+-- member 는 RedisTemplate value serializer 로 직렬화된 값이므로 key 를 만들 때 decode 한다
+-- 조상/자식 키는 미리 알 수 없어 prefix 로 만든다. prefix 가 테넌트 hash tag 를 포함하므로
+-- KEYS 로 넘긴 키와 같은 슬롯이다(Redis Cluster 는 선언한 키의 슬롯만 검사한다)
+local prefix = cjson.decode(ARGV[1])
+
+local function key(member, suffix)
+    return prefix .. ':' .. cjson.decode(member) .. ':' .. suffix
+end
+
+-- unpack 인자 수 제한(LUAI_MAXCSTACK) 때문에 나눠서 호출
+local function batch(command, target, members)
+    for i = 1, #members, 1000 do
+        redis.call(command, target, unpack(members, i, math.min(i + 999, #members)))
+    end
+end
+
+
+-- parents/children 는 sorted set 이고 score 는 상대 깊이(부모 1, 조부모 2 ...)
+-- ZRANGE WITHSCORES 결과를 member 목록과 member -> 깊이 로 나눈다
+local function withDepths(target)
+    local reply = redis.call('ZRANGE', target, 0, -1, 'WITHSCORES')
+    local members, depths = {}, {}
+    for i = 1, #reply, 2 do
+        members[#members + 1] = reply[i]
+        depths[reply[i]] = tonumber(reply[i + 1])
+    end
+    return members, depths
+end
+
+-- members 를 ZADD 인자 (깊이 + offset, member) 쌍으로 펼쳐 나눠서 추가
+local function zadd(target, members, depths, offset)
+    local args = {}
+    for _, member in ipairs(members) do
+        args[#args + 1] = depths[member] + offset
+        args[#args + 1] = member
+    end
+    for i = 1, #args, 1000 do
+        redis.call('ZADD', target, unpack(args, i, math.min(i + 999, #args)))
+    end
+end
+
+-- 테넌트 통계 hash(마지막 KEYS), depth:{깊이} 와 fanout:{직속 자식 수} 마다 그룹 수를 센다
+local stats = KEYS[#KEYS]
+
+local function count(field, delta)
+    if delta ~= 0 and redis.call('HINCRBY', stats, field, delta) <= 0 then
+        redis.call('HDEL', stats, field)
+    end
+end
+
+-- parentChildren 의 직속 자식이 하나 늘거나(1) 줄었을 때(-1) fan-out 분포를 옮긴다, 자식이 없는 그룹은 세지 않는다
+local function fanOut(parentChildren, delta)
+    local after = redis.call('ZCOUNT', parentChildren, 1, 1)
+    local before = after - delta
+    if before > 0 then
+        count('fanout:' .. before, -1)
+    end
+    if after > 0 then
+        count('fanout:' .. after, 1)
+    end
+end
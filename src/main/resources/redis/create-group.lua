@@ -0,0 +1,18 @@
+-- KEYS[1]: parent parents, KEYS[2]: parent children, KEYS[3]: id parents, KEYS[4]: stats
+-- ARGV[1]: prefix, ARGV[2]: parentId, ARGV[3]: id
+local ancestors, depths = withDepths(KEYS[1])
+
+redis.call('UNLINK', KEYS[3])
+redis.call('ZADD', KEYS[3], 1, ARGV[2])
+zadd(KEYS[3], ancestors, depths, 1)
+
+-- 이미 직속 자식이면 통계는 그대로 둔다
+if redis.call('ZADD', KEYS[2], 1, ARGV[3]) == 1 then
+    fanOut(KEYS[2], 1)
+    count('depth:' .. (#ancestors + 1), 1)
+end
+for _, ancestor in ipairs(ancestors) do
+    redis.call('ZADD', key(ancestor, 'children'), depths[ancestor] + 1, ARGV[3])
+end
+
+return #ancestors + 1
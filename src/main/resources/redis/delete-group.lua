@@ -0,0 +1,22 @@
+-- KEYS[1]: id parents, KEYS[2]: id children, KEYS[3]: stats
+-- ARGV[1]: prefix, ARGV[2]: id
+local parents, depths = withDepths(KEYS[1])
+
+for _, parent in ipairs(parents) do
+    local parentChildren = key(parent, 'children')
+    if redis.call('ZREM', parentChildren, ARGV[2]) == 1 and depths[parent] == 1 then
+        fanOut(parentChildren, -1)
+    end
+end
+
+-- 자신의 깊이와 fan-out 을 분포에서 뺀다
+if redis.call('EXISTS', KEYS[1]) == 1 then
+    count('depth:' .. #parents, -1)
+end
+local children = redis.call('ZCOUNT', KEYS[2], 1, 1)
+if children > 0 then
+    count('fanout:' .. children, -1)
+end
+redis.call('UNLINK', KEYS[1], KEYS[2])
+
+return #parents
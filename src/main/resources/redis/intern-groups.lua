@@ -0,0 +1,21 @@
+-- KEYS[1]: ids (group id -> 정수), KEYS[2]: names (정수 -> group id), KEYS[3]: 번호 시퀀스, KEYS[4]: 사전 세대
+-- ARGV[1]: 사전이 없을 때 쓸 새 세대, ARGV[2..]: group id 목록
+-- 사전에 없는 id 만 INCR 로 새 번호를 받는다, 반환은 {세대, 번호...}
+-- 사전이 유실돼 다시 만들어지면 세대가 바뀌므로 인스턴스는 로컬 사전을 버린다
+redis.call('SET', KEYS[4], ARGV[1], 'NX')
+-- 시퀀스만 유실된 경우 기존 번호와 겹치지 않도록 사전 크기에서 이어간다
+if redis.call('EXISTS', KEYS[3]) == 0 then
+    redis.call('SET', KEYS[3], redis.call('HLEN', KEYS[2]))
+end
+local result = { redis.call('GET', KEYS[4]) }
+for i = 2, #ARGV do
+    local groupId = ARGV[i]
+    local number = redis.call('HGET', KEYS[1], groupId)
+    if not number then
+        number = tostring(redis.call('INCR', KEYS[3]))
+        redis.call('HSET', KEYS[1], groupId, number)
+        redis.call('HSET', KEYS[2], number, groupId)
+    end
+    result[i] = number
+end
+return result
@@ -0,0 +1,55 @@
+-- KEYS[1]: target parents, KEYS[2]: target children, KEYS[3]: newParent parents, KEYS[4]: stats
+-- ARGV[1]: prefix, ARGV[2]: newParentId, ARGV[3]: targetId
+local oldParents, oldDepths = withDepths(KEYS[1])
+local children, childDepths = withDepths(KEYS[2])
+
+-- 이전 parents 의 children 제거
+for _, parent in ipairs(oldParents) do
+    local parentChildren = key(parent, 'children')
+    if redis.call('ZREM', parentChildren, ARGV[3]) == 1 and oldDepths[parent] == 1 then
+        fanOut(parentChildren, -1)
+    end
+    batch('ZREM', parentChildren, children)
+end
+-- children 의 parents 제거
+for _, child in ipairs(children) do
+    batch('ZREM', key(child, 'parents'), oldParents)
+end
+
+-- 현 parents = newParent(깊이 1) + newParent 의 parents(깊이 + 1)
+-- target 하위의 target 기준 깊이는 그대로이므로, 새 조상과의 깊이는 두 깊이의 합이다
+local newParents, parentDepths = withDepths(KEYS[3])
+for _, parent in ipairs(newParents) do
+    parentDepths[parent] = parentDepths[parent] + 1
+end
+table.insert(newParents, ARGV[2])
+parentDepths[ARGV[2]] = 1
+
+redis.call('UNLINK', KEYS[1])
+zadd(KEYS[1], newParents, parentDepths, 0)
+-- children 에 parents 추가
+for _, child in ipairs(children) do
+    zadd(key(child, 'parents'), newParents, parentDepths, childDepths[child])
+end
+-- 현 parents 에 children 추가
+for _, parent in ipairs(newParents) do
+    local parentChildren = key(parent, 'children')
+    if redis.call('ZADD', parentChildren, parentDepths[parent], ARGV[3]) == 1 and parent == ARGV[2] then
+        fanOut(parentChildren, 1)
+    end
+    zadd(parentChildren, children, childDepths, parentDepths[parent])
+end
+
+-- target 과 하위 전체가 같은 레벨 수만큼 옮겨지므로 target 기준 깊이별로 묶어 분포를 옮긴다
+if #newParents ~= #oldParents then
+    local moved = { [0] = 1 }
+    for _, child in ipairs(children) do
+        moved[childDepths[child]] = (moved[childDepths[child]] or 0) + 1
+    end
+    for depth, groups in pairs(moved) do
+        count('depth:' .. (#oldParents + depth), -groups)
+        count('depth:' .. (#newParents + depth), groups)
+    end
+end
+
+return #children + 1
@@ -0,0 +1,10 @@
+-- KEYS[1]: lock
+-- ARGV[1]: owner token, ARGV[2]: release channel
+-- 자신이 잡은 락일 때만 지우고, 대기 중인 인스턴스를 깨운다
+if redis.call('GET', KEYS[1]) ~= ARGV[1] then
+    return 0
+end
+
+redis.call('DEL', KEYS[1])
+redis.call('PUBLISH', cjson.decode(ARGV[2]), KEYS[1])
+return 1
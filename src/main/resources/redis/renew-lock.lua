@@ -0,0 +1,8 @@
+-- KEYS[1]: lock
+-- ARGV[1]: owner token, ARGV[2]: ttl(ms)
+-- 자신이 잡은 락일 때만 만료 시간을 연장한다
+if redis.call('GET', KEYS[1]) ~= ARGV[1] then
+    return 0
+end
+
+return redis.call('PEXPIRE', KEYS[1], cjson.decode(ARGV[2]))
@@ -0,0 +1,9 @@
+-- KEYS[1]: children
+-- ARGV[1]: cursor, ARGV[2]: count
+-- ZSCAN 한 번의 결과를 {cursor, member...} 로 반환(score 는 버린다). 값 직렬화(JSON)에 맞춰 cursor 도 JSON 문자열로 감싼다
+local reply = redis.call('ZSCAN', KEYS[1], cjson.decode(ARGV[1]), 'COUNT', cjson.decode(ARGV[2]))
+local result = { cjson.encode(reply[1]) }
+for i = 1, #reply[2], 2 do
+    result[#result + 1] = reply[2][i]
+end
+return result
@@ -5,6 +5,7 @@ import static org.assertj.core.api.Assertions.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -18,11 +19,16 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.redis.connection.RedisConnection;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.nice1st.Hierarchy_Cache.cache.CacheService;
 import com.nice1st.Hierarchy_Cache.cache.LockService;
+import com.nice1st.Hierarchy_Cache.config.HierarchyCacheProperties;
+import com.nice1st.Hierarchy_Cache.repository.HierarchyGroupEventRepository;
+import com.nice1st.Hierarchy_Cache.repository.HierarchyGroupSnapshotRepository;
 import com.nice1st.Hierarchy_Cache.service.HierarchyGroupCommandService;
 import com.nice1st.Hierarchy_Cache.service.HierarchyGroupReadService;
+import com.nice1st.Hierarchy_Cache.service.HierarchyGroupSnapshotService;
 
 @SpringBootTest
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -46,6 +52,21 @@ class HierarchyCacheApplicationTests {
     @Autowired
     RedisTemplate<String, String> redisTemplate;
 
+    @Autowired
+    HierarchyGroupEventRepository eventRepository;
+
+    @Autowired
+    HierarchyCacheProperties properties;
+
+    @Autowired
+    HierarchyGroupSnapshotService snapshotService;
+
+    @Autowired
+    HierarchyGroupSnapshotRepository snapshotRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
     final String TENANT_ID = "tenant1";
 
     final String ROOT_GROUP_ID = "e1757bb8-8568-4135-8e67-778361b3329d";
@@ -81,6 +102,144 @@ class HierarchyCacheApplicationTests {
         assertThat(ids).contains(DEPTH1_ID, newDepth2Id, newDepth2Id2);
     }
 
+    @Test
+    void 이벤트를_페이지_단위로_적용하고_커서를_옮긴다() {
+        readService.read(ROOT_GROUP_ID);
+        HierarchyCacheProperties.CatchUp catchUp = properties.getCatchUp();
+        int pageSize = catchUp.getPageSize();
+        catchUp.setPageSize(2);
+        try {
+            List<String> created = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                created.add(commandService.create(DEPTH1_ID).getId());
+            }
+
+            Set<String> ids = readService.read(ROOT_GROUP_ID);
+
+            assertThat(ids).containsAll(created);
+            Long latest = eventRepository.findTopByTenantIdOrderByIdDesc(TENANT_ID).orElseThrow().getId();
+            assertThat(cacheService.getCursor(TENANT_ID)).isEqualTo(String.valueOf(latest));
+        } finally {
+            catchUp.setPageSize(pageSize);
+        }
+    }
+
+    @Test
+    void write_through_는_커밋_직후_캐시와_커서를_옮긴다() {
+        HierarchyCacheProperties.WriteThrough writeThrough = properties.getWriteThrough();
+        writeThrough.setEnabled(true);
+        try {
+            // 다른 테스트가 잡아 둔 tenant1 락과 겹치지 않도록 새 테넌트에서 확인
+            String tenantId = "write-through-" + UUID.randomUUID();
+            String rootId = commandService.createRoot(tenantId).getId();
+            commandService.create(rootId);
+
+            String childId = commandService.create(rootId).getId();
+
+            Long latest = eventRepository.findTopByTenantIdOrderByIdDesc(tenantId).orElseThrow().getId();
+            assertThat(cacheService.getCursor(tenantId)).isEqualTo(String.valueOf(latest));
+            assertThat(cacheService.getHighWaterMark(tenantId)).contains(String.valueOf(latest));
+            assertThat(cacheService.getChildren(tenantId, rootId)).contains(childId);
+        } finally {
+            writeThrough.setEnabled(false);
+        }
+    }
+
+    @Test
+    void 스냅샷_이전_이벤트를_지워도_스냅샷과_꼬리_재생으로_복구된다() {
+        HierarchyCacheProperties.EventSnapshot eventSnapshot = properties.getEventSnapshot();
+        long minEvents = eventSnapshot.getMinEvents();
+        eventSnapshot.setMinEvents(1);
+        try {
+            String tenantId = "event-snapshot-" + UUID.randomUUID();
+            String rootId = commandService.createRoot(tenantId).getId();
+            String childId = commandService.create(rootId).getId();
+            String grandChildId = commandService.create(childId).getId();
+            readService.read(rootId);
+
+            assertThat(snapshotService.snapshot(tenantId)).isTrue();
+            assertThat(eventRepository.countByTenantId(tenantId)).isZero();
+            assertThat(snapshotRepository.findById(tenantId)).isPresent();
+
+            // 스냅샷보다 뒤처진 인스턴스: 지워진 이벤트 대신 스냅샷을 적재하고 이후 이벤트만 재생한다
+            cacheService.updateCursor(tenantId, 0L);
+            String newChildId = commandService.create(rootId).getId();
+
+            assertThat(readService.read(rootId)).containsExactlyInAnyOrder(childId, grandChildId, newChildId);
+            Long latest = eventRepository.findTopByTenantIdOrderByIdDesc(tenantId).orElseThrow().getId();
+            assertThat(cacheService.getCursor(tenantId)).isEqualTo(String.valueOf(latest));
+        } finally {
+            eventSnapshot.setMinEvents(minEvents);
+        }
+    }
+
+    @Test
+    void 스냅샷_커밋_전에는_따라잡기가_끼어들지_못한다() throws Exception {
+        HierarchyCacheProperties.EventSnapshot eventSnapshot = properties.getEventSnapshot();
+        long minEvents = eventSnapshot.getMinEvents();
+        eventSnapshot.setMinEvents(1);
+        try {
+            String tenantId = "event-snapshot-" + UUID.randomUUID();
+            String rootId = commandService.createRoot(tenantId).getId();
+            String childId = commandService.create(rootId).getId();
+            readService.read(rootId);
+            // 커서가 뒤처진 상태에서 압축
+            String lateChildId = commandService.create(rootId).getId();
+
+            CountDownLatch compacted = new CountDownLatch(1);
+            CountDownLatch caughtUp = new CountDownLatch(1);
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                var catchUp = executor.submit(() -> {
+                    compacted.await();
+                    boolean locked = readService.prewarm(tenantId);
+                    caughtUp.countDown();
+                    return locked;
+                });
+
+                transactionTemplate.executeWithoutResult(status -> {
+                    assertThat(snapshotService.snapshot(tenantId)).isTrue();
+                    // 삭제는 끝났지만 아직 커밋 전, 따라잡기는 락을 잡지 못해야 한다
+                    compacted.countDown();
+                    try {
+                        assertThat(caughtUp.await(10, TimeUnit.SECONDS)).isTrue();
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+                assertThat(catchUp.get()).isFalse();
+            } finally {
+                executor.shutdown();
+            }
+
+            // 커밋 뒤에는 스냅샷으로 복구하고 커서를 스냅샷까지 옮긴다
+            assertThat(readService.read(rootId)).containsExactlyInAnyOrder(childId, lateChildId);
+            Long snapshotEventId = snapshotRepository.findById(tenantId).orElseThrow().getEventId();
+            assertThat(cacheService.getCursor(tenantId)).isEqualTo(String.valueOf(snapshotEventId));
+        } finally {
+            eventSnapshot.setMinEvents(minEvents);
+        }
+    }
+
+    @Test
+    void 한_페이지_안에서_조상을_옮긴_뒤의_이동도_반영된다() {
+        // R -> {X, A}, A -> B -> C
+        String tenantId = "restructure-" + UUID.randomUUID();
+        String rootId = commandService.createRoot(tenantId).getId();
+        String xId = commandService.create(rootId).getId();
+        String aId = commandService.create(rootId).getId();
+        String bId = commandService.create(aId).getId();
+        String cId = commandService.create(bId).getId();
+        readService.read(rootId);
+
+        // B 를 X 아래로 옮기면 C 의 조상은 {B, X, R}, 이어서 C 를 A 아래로
+        commandService.move(bId, xId);
+        commandService.move(cId, aId);
+
+        assertThat(readService.read(aId)).containsExactly(cId);
+        assertThat(readService.read(xId)).containsExactly(bId);
+    }
+
     @Test
     void 커서_유실_오염_상태_자동복구_검증() {
         // Given: 캐시와 커서가 정상 상태
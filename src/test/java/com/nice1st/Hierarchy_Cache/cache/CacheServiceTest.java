@@ -2,8 +2,9 @@ package com.nice1st.Hierarchy_Cache.cache;
 
 import static org.assertj.core.api.Assertions.*;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 import org.junit.jupiter.api.BeforeAll;
@@ -14,8 +15,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 
-import com.nice1st.Hierarchy_Cache.domain.HierarchyGroup;
 import com.nice1st.Hierarchy_Cache.service.HierarchyGroupReadService;
+import com.nice1st.Hierarchy_Cache.service.HierarchyTreeLoader;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 @SpringBootTest
@@ -30,6 +31,9 @@ class CacheServiceTest {
     @Autowired
     HierarchyGroupReadService hierarchyGroupReadService;
 
+    @Autowired
+    HierarchyTreeLoader hierarchyTreeLoader;
+
     final String TENANT_ID = "tenant1";
 
     final String ROOT_GROUP_ID = "e1757bb8-8568-4135-8e67-778361b3329d";
@@ -47,12 +51,13 @@ class CacheServiceTest {
             try(var connection = redisConnectionFactory.getConnection()) {
                 connection.serverCommands().flushDb();
             }
+            // near cache 가 비워진 Redis 를 모르고 이전 값을 돌려주지 않도록 바로 다시 적재
+            initialize();
         }
     }
 
     void initialize() {
-        Map<String, List<HierarchyGroup>> groupedByParent = hierarchyGroupReadService.getGroupedByParent(TENANT_ID);
-        cacheService.initialize(TENANT_ID, groupedByParent);
+        cacheService.initialize(TENANT_ID, hierarchyTreeLoader.load(TENANT_ID));
     }
 
     boolean hasCached() {
@@ -77,6 +82,111 @@ class CacheServiceTest {
         // do nothing
     }
 
+    @Test
+    void getChildrenPage() {
+        Set<String> paged = new HashSet<>();
+        String cursor = null;
+        do {
+            ChildrenPage page = cacheService.getChildren(TENANT_ID, ROOT_GROUP_ID, cursor, 1000);
+            assertThat(page.ids()).hasSizeLessThanOrEqualTo(1000);
+            paged.addAll(page.ids());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(paged).isEqualTo(new HashSet<>(cacheService.getChildren(TENANT_ID, ROOT_GROUP_ID)));
+    }
+
+    // Redis 의 작은 집합(listpack)은 ZSCAN 한 번에 전체가 오므로 limit 만큼 자르고 나머지를 커서로 이어간다
+    @Test
+    void getChildrenPageSmallerThanScan() {
+        List<String> children = List.of("page_a", "page_b", "page_c", "page_d", "page_e");
+        cacheService.createGroup(TENANT_ID, DEPTH3_ID, "page_parent");
+        children.forEach(child -> cacheService.createGroup(TENANT_ID, "page_parent", child));
+        try {
+            List<String> paged = new ArrayList<>();
+            String cursor = null;
+            do {
+                ChildrenPage page = cacheService.getChildren(TENANT_ID, "page_parent", cursor, 2);
+                assertThat(page.ids()).hasSizeLessThanOrEqualTo(2);
+                paged.addAll(page.ids());
+                cursor = page.nextCursor();
+            } while (cursor != null);
+
+            assertThat(paged).containsExactlyInAnyOrderElementsOf(children);
+        } finally {
+            children.forEach(child -> cacheService.deleteGroup(TENANT_ID, child));
+            cacheService.deleteGroup(TENANT_ID, "page_parent");
+        }
+    }
+
+    @Test
+    void getChildrenWithinDepth() {
+        Set<String> direct = cacheService.getChildren(TENANT_ID, DEPTH2_ID, 1);
+        assertThat(direct).contains(DEPTH3_ID);
+        assertThat(cacheService.getChildren(TENANT_ID, ROOT_GROUP_ID, 1)).doesNotContain(DEPTH3_ID);
+
+        Set<String> all = cacheService.getChildren(TENANT_ID, ROOT_GROUP_ID);
+        assertThat(cacheService.getChildren(TENANT_ID, ROOT_GROUP_ID, Integer.MAX_VALUE)).isEqualTo(all);
+        assertThat(all).containsAll(cacheService.getChildren(TENANT_ID, ROOT_GROUP_ID, 2));
+    }
+
+    @Test
+    void getPath() {
+        // move 테스트가 DEPTH2 를 옮길 수 있으므로 DEPTH1 자리는 확인하지 않는다
+        List<String> path = cacheService.getPath(TENANT_ID, DEPTH3_ID);
+
+        assertThat(path).hasSize(4);
+        assertThat(path.getFirst()).isEqualTo(ROOT_GROUP_ID);
+        assertThat(path.subList(2, 4)).containsExactly(DEPTH2_ID, DEPTH3_ID);
+        assertThat(cacheService.getPath(TENANT_ID, ROOT_GROUP_ID)).containsExactly(ROOT_GROUP_ID);
+        assertThat(cacheService.getPath(TENANT_ID, "missing")).isEmpty();
+    }
+
+    @Test
+    void stats() {
+        Set<String> all = cacheService.getChildren(TENANT_ID, ROOT_GROUP_ID);
+        SubtreeStats subtree = cacheService.getSubtreeStats(TENANT_ID, ROOT_GROUP_ID);
+        assertThat(subtree.descendants()).isEqualTo(all.size());
+        assertThat(cacheService.getChildren(TENANT_ID, ROOT_GROUP_ID, subtree.height())).isEqualTo(all);
+        assertThat(cacheService.getChildren(TENANT_ID, ROOT_GROUP_ID, subtree.height() - 1)).hasSizeLessThan(all.size());
+
+        HierarchyStats stats = cacheService.getStats(TENANT_ID);
+        assertThat(stats.groups()).isEqualTo(all.size() + 1);
+        assertThat(stats.height()).isEqualTo(subtree.height());
+        assertThat(stats.averageFanOut()).isGreaterThan(1).isLessThanOrEqualTo(stats.maxFanOut());
+
+        // 갱신마다 분포가 함께 바뀌고, 되돌리면 원래 값으로 돌아온다
+        cacheService.createGroup(TENANT_ID, DEPTH3_ID, "stats_id");
+        assertThat(cacheService.getStats(TENANT_ID).groups()).isEqualTo(stats.groups() + 1);
+        assertThat(cacheService.getSubtreeStats(TENANT_ID, DEPTH3_ID).descendants()).isGreaterThanOrEqualTo(1);
+
+        cacheService.deleteGroup(TENANT_ID, "stats_id");
+        assertThat(cacheService.getStats(TENANT_ID)).isEqualTo(stats);
+    }
+
+    @Test
+    void filterChildren() {
+        Set<String> filtered = cacheService.filterChildren(TENANT_ID, DEPTH2_ID,
+          List.of(DEPTH3_ID, DEPTH2_ID, ROOT_GROUP_ID, "missing"));
+
+        assertThat(filtered).containsExactly(DEPTH3_ID);
+        assertThat(cacheService.filterChildren(TENANT_ID, "missing", List.of(DEPTH3_ID))).isEmpty();
+    }
+
+    @Test
+    void combineChildren() {
+        Set<String> depth1 = cacheService.getChildren(TENANT_ID, DEPTH1_ID);
+        Set<String> depth2 = cacheService.getChildren(TENANT_ID, DEPTH2_ID);
+        List<String> groupIds = List.of(DEPTH1_ID, DEPTH2_ID);
+
+        assertThat(cacheService.combineChildren(TENANT_ID, groupIds, SetOperation.UNION))
+          .isEqualTo(SetOperation.UNION.apply(List.of(depth1, depth2)));
+        assertThat(cacheService.combineChildren(TENANT_ID, groupIds, SetOperation.INTERSECTION))
+          .isEqualTo(SetOperation.INTERSECTION.apply(List.of(depth1, depth2)));
+        assertThat(cacheService.combineChildren(TENANT_ID, groupIds, SetOperation.DIFFERENCE))
+          .isEqualTo(SetOperation.DIFFERENCE.apply(List.of(depth1, depth2)));
+    }
+
     @Test
     void insert_and_delete() {
         String id = insert();
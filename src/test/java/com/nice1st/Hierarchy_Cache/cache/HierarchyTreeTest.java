@@ -0,0 +1,65 @@
+package com.nice1st.Hierarchy_Cache.cache;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class HierarchyTreeTest {
+
+    @Test
+    void 부모가_없거나_테넌트_밖이면_가상_루트_아래에_둔다() {
+        HierarchyTree tree = HierarchyTree.builder()
+          .add("b", "a")
+          .add("a", null)
+          .add("c", "a")
+          .add("x", "other-tenant")
+          .build();
+
+        assertThat(tree.size()).isEqualTo(4);
+        assertThat(tree.childCount(tree.root())).isEqualTo(2);
+        assertThat(tree.id(tree.child(tree.root(), 0))).isEqualTo("a");
+        assertThat(tree.id(tree.child(tree.root(), 1))).isEqualTo("x");
+
+        int a = tree.indexOf("a");
+        assertThat(tree.childCount(a)).isEqualTo(2);
+        assertThat(tree.id(tree.child(a, 0))).isEqualTo("b");
+        assertThat(tree.id(tree.child(a, 1))).isEqualTo("c");
+        assertThat(tree.indexOf("missing")).isEqualTo(-1);
+    }
+
+    @Test
+    void 깊이와_fan_out_분포() {
+        HierarchyTree tree = HierarchyTree.builder()
+          .add("a", null)
+          .add("b", "a")
+          .add("c", "a")
+          .add("d", "b")
+          .build();
+
+        assertThat(tree.groupsByDepth()).isEqualTo(Map.of(0, 1L, 1, 2L, 2, 1L));
+        assertThat(tree.groupsByFanOut()).isEqualTo(Map.of(1, 1L, 2, 1L));
+        assertThat(HierarchyStats.of(tree.groupsByDepth(), tree.groupsByFanOut()))
+          .isEqualTo(new HierarchyStats(4, 2, 2, 1.5));
+    }
+
+    @Test
+    void 바이너리로_옮겨도_같은_트리다() {
+        String uuid = "f28ff6e7-e556-4911-8271-587f6e9a2c8b";
+        HierarchyTree tree = HierarchyTree.builder()
+          .add("ROOT_GROUP", null)
+          .add(uuid, "ROOT_GROUP")
+          .add("F28FF6E7-E556-4911-8271-587F6E9A2C8B", uuid)
+          .build();
+
+        HierarchyTree decoded = HierarchyTree.fromBytes(tree.toBytes());
+
+        assertThat(decoded.size()).isEqualTo(3);
+        assertThat(decoded.id(decoded.child(decoded.root(), 0))).isEqualTo("ROOT_GROUP");
+        int node = decoded.indexOf(uuid);
+        assertThat(decoded.childCount(node)).isEqualTo(1);
+        assertThat(decoded.id(decoded.child(node, 0))).isEqualTo("F28FF6E7-E556-4911-8271-587F6E9A2C8B");
+        assertThat(decoded.groupsByDepth()).isEqualTo(tree.groupsByDepth());
+    }
+}
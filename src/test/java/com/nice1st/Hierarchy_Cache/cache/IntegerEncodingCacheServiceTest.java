@@ -0,0 +1,73 @@
+package com.nice1st.Hierarchy_Cache.cache;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import com.nice1st.Hierarchy_Cache.cache.redis.RedisGroupIdDictionary;
+
+// CacheServiceTest 를 id-encoding=integer 로 다시 돌린다
+@ActiveProfiles("redis")
+// 컨텍스트가 새로 뜰 때 ddl-auto/data.sql 이 다른 컨텍스트가 쓰는 H2 를 다시 만들지 않도록 DB 를 나눈다
+@TestPropertySource(properties = {"hierarchy.cache.redis.id-encoding=integer",
+  "spring.datasource.url=jdbc:h2:mem:integer-encoding;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=2000"})
+class IntegerEncodingCacheServiceTest extends CacheServiceTest {
+
+    @Autowired
+    RedisTemplate<String, String> redisTemplate;
+
+    @Test
+    void 사전이_유실되면_세대가_바뀌어_로컬_사전을_버린다() {
+        String tenantId = "dictionary-" + UUID.randomUUID();
+        RedisGroupIdDictionary dictionary = new RedisGroupIdDictionary(redisTemplate, 1_000);
+        assertThat(dictionary.intern(tenantId, List.of("a", "b"))).containsExactly("1", "2");
+
+        lose(tenantId);
+
+        assertThat(dictionary.intern(tenantId, "c")).isEqualTo("1");
+        assertThat(dictionary.names(tenantId, List.of("1"))).containsExactly("c");
+        assertThat(dictionary.number(tenantId, "a")).isNull();
+    }
+
+    @Test
+    void 다른_인스턴스가_초기화하면_로컬_사전을_버린다() {
+        String tenantId = "dictionary-" + UUID.randomUUID();
+        RedisGroupIdDictionary writer = new RedisGroupIdDictionary(redisTemplate, 1_000);
+        RedisGroupIdDictionary reader = new RedisGroupIdDictionary(redisTemplate, 1_000);
+        writer.intern(tenantId, List.of("a"));
+        assertThat(reader.number(tenantId, "a")).isEqualTo("1");
+
+        // Redis 유실 후 writer 가 다시 초기화하며 번호를 새로 매긴다
+        lose(tenantId);
+        writer.reset(tenantId);
+        assertThat(writer.intern(tenantId, List.of("b", "a"))).containsExactly("1", "2");
+
+        reader.onMessage(new DefaultMessage(RedisGroupIdDictionary.RESET_CHANNEL.getBytes(),
+          new GenericJackson2JsonRedisSerializer().serialize("other-instance:" + tenantId)), null);
+        assertThat(reader.number(tenantId, "a")).isEqualTo("2");
+    }
+
+    @Test
+    void 시퀀스만_유실돼도_기존_번호와_겹치지_않는다() {
+        String tenantId = "dictionary-" + UUID.randomUUID();
+        RedisGroupIdDictionary dictionary = new RedisGroupIdDictionary(redisTemplate, 1_000);
+        dictionary.intern(tenantId, List.of("a", "b"));
+
+        redisTemplate.delete("{" + tenantId + "}:group:ids:seq");
+
+        assertThat(dictionary.intern(tenantId, "c")).isEqualTo("3");
+    }
+
+    private void lose(String tenantId) {
+        redisTemplate.delete(redisTemplate.keys("{" + tenantId + "}:group:*"));
+    }
+}
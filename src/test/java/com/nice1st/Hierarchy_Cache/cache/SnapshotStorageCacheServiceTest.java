@@ -0,0 +1,60 @@
+package com.nice1st.Hierarchy_Cache.cache;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import com.nice1st.Hierarchy_Cache.cache.redis.RedisSnapshotCacheService;
+
+// CacheServiceTest 를 storage=snapshot 으로 다시 돌린다
+@ActiveProfiles("redis")
+// 컨텍스트가 새로 뜰 때 ddl-auto/data.sql 이 다른 컨텍스트가 쓰는 H2 를 다시 만들지 않도록 DB 를 나눈다
+@TestPropertySource(properties = {"hierarchy.cache.redis.storage=snapshot",
+  "spring.datasource.url=jdbc:h2:mem:snapshot-storage;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=2000"})
+class SnapshotStorageCacheServiceTest extends CacheServiceTest {
+
+    @Autowired
+    RedisTemplate<String, String> redisTemplate;
+
+    @Test
+    void 다른_인스턴스가_커서를_옮기면_스냅샷을_다시_내려받는다() {
+        RedisSnapshotCacheService writer = new RedisSnapshotCacheService(redisTemplate);
+        RedisSnapshotCacheService reader = new RedisSnapshotCacheService(redisTemplate);
+        String tenantId = "snapshot-" + UUID.randomUUID();
+
+        // 초기화만으로는 쓰지 않고, 커서를 옮길 때 스냅샷과 함께 쓴다
+        writer.initialize(tenantId, HierarchyTree.builder().add("root", null).add("a", "root").build());
+        assertThat(reader.getChildren(tenantId, "root")).isEmpty();
+        writer.updateCursor(tenantId, 1L);
+
+        assertThat(reader.getCursor(tenantId)).isEqualTo("1");
+        assertThat(reader.getChildren(tenantId, "root")).containsExactly("a");
+
+        writer.createGroup(tenantId, "root", "b");
+        writer.updateCursor(tenantId, 2L);
+
+        assertThat(reader.getCursor(tenantId)).isEqualTo("2");
+        assertThat(reader.getChildren(tenantId, "root")).containsExactlyInAnyOrder("a", "b");
+    }
+
+    @Test
+    void 확정하지_못한_변경은_버리고_스냅샷을_다시_내려받는다() {
+        RedisSnapshotCacheService cache = new RedisSnapshotCacheService(redisTemplate);
+        String tenantId = "snapshot-" + UUID.randomUUID();
+
+        cache.initialize(tenantId, HierarchyTree.builder().add("root", null).add("a", "root").build());
+        cache.updateCursor(tenantId, 1L);
+
+        // 따라잡기가 updateCursor 전에 실패한 상태
+        cache.createGroup(tenantId, "root", "b");
+        cache.discardPending(tenantId);
+
+        assertThat(cache.getChildren(tenantId, "root")).containsExactly("a");
+    }
+}
@@ -0,0 +1,87 @@
+package com.nice1st.Hierarchy_Cache.cache.local;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.nice1st.Hierarchy_Cache.cache.ChildrenPage;
+import com.nice1st.Hierarchy_Cache.cache.HierarchyTree;
+import com.nice1st.Hierarchy_Cache.cache.InvalidCursorException;
+
+class InMemoryCacheServiceTest {
+
+    InMemoryCacheService cacheService = new InMemoryCacheService();
+
+    @Test
+    void 테넌트_초기화는_다른_테넌트에_영향이_없다() {
+        cacheService.createGroup("tenant1", "root1", "a");
+        cacheService.createGroup("tenant2", "root2", "b");
+
+        cacheService.initialize("tenant2", HierarchyTree.builder().build());
+
+        assertThat(cacheService.getChildren("tenant1", "root1")).containsExactly("a");
+        assertThat(cacheService.hasCached("tenant2", "b")).isFalse();
+    }
+
+    @Test
+    void 이동하면_하위_전체의_깊이가_함께_바뀐다() {
+        cacheService.createGroup("tenant1", "root", "a");
+        cacheService.createGroup("tenant1", "a", "b");
+        cacheService.createGroup("tenant1", "b", "c");
+        cacheService.createGroup("tenant1", "root", "d");
+
+        cacheService.moveGroup("tenant1", "root", "b");
+
+        assertThat(cacheService.getChildren("tenant1", "root", 1)).containsExactlyInAnyOrder("a", "b", "d");
+        assertThat(cacheService.getChildren("tenant1", "root", 2)).containsExactlyInAnyOrder("a", "b", "c", "d");
+        assertThat(cacheService.getPath("tenant1", "c")).containsExactly("root", "b", "c");
+
+        cacheService.moveGroup("tenant1", "d", "b");
+
+        assertThat(cacheService.getChildren("tenant1", "root", 2)).containsExactlyInAnyOrder("a", "b", "d");
+        assertThat(cacheService.getPath("tenant1", "c")).containsExactly("root", "d", "b", "c");
+    }
+
+    @Test
+    void 조회_결과는_내부_집합을_노출하지_않는다() {
+        cacheService.createGroup("tenant1", "root", "a");
+
+        Set<String> children = cacheService.getChildren("tenant1", "root");
+
+        assertThatThrownBy(() -> children.add("b")).isInstanceOf(UnsupportedOperationException.class);
+        assertThat(cacheService.getChildren("tenant1", "root")).containsExactly("a");
+    }
+
+    @Test
+    void 스냅샷에는_삭제된_그룹이_빠진다() {
+        cacheService.createGroup("tenant1", "root", "a");
+        cacheService.createGroup("tenant1", "a", "b");
+        cacheService.createGroup("tenant1", "root", "c");
+        cacheService.deleteGroup("tenant1", "c");
+
+        InMemoryCacheService restored = new InMemoryCacheService();
+        restored.initialize("tenant1", cacheService.snapshot("tenant1"));
+
+        assertThat(restored.getChildren("tenant1", "root")).containsExactlyInAnyOrder("a", "b");
+        assertThat(restored.getPath("tenant1", "b")).containsExactly("root", "a", "b");
+        assertThat(restored.hasCached("tenant1", "c")).isFalse();
+    }
+
+    @Test
+    void 재초기화_전의_페이지_커서는_거절한다() {
+        HierarchyTree tree = HierarchyTree.builder().add("root", null).add("a", "root").add("b", "root").build();
+        cacheService.initialize("tenant1", tree);
+        ChildrenPage first = cacheService.getChildren("tenant1", "root", null, 1);
+
+        assertThat(cacheService.getChildren("tenant1", "root", first.nextCursor(), 1).ids()).hasSize(1);
+
+        cacheService.initialize("tenant1", tree);
+
+        assertThatThrownBy(() -> cacheService.getChildren("tenant1", "root", first.nextCursor(), 1))
+          .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> cacheService.getChildren("tenant1", "root", "not-a-number", 1))
+          .isInstanceOf(InvalidCursorException.class);
+    }
+}
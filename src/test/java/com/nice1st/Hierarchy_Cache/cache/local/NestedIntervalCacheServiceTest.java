@@ -0,0 +1,94 @@
+package com.nice1st.Hierarchy_Cache.cache.local;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.nice1st.Hierarchy_Cache.cache.ChildrenPage;
+
+class NestedIntervalCacheServiceTest {
+
+    NestedIntervalCacheService cacheService = new NestedIntervalCacheService();
+
+    @Test
+    void 깊은_체인도_재라벨링_후_포함관계를_유지한다() {
+        // 한 부모 아래로 계속 내려가면 간격이 빠르게 줄어 재라벨링이 일어난다
+        String parent = "root";
+        for (int i = 0; i < 200; i++) {
+            cacheService.createGroup("tenant1", parent, "g" + i);
+            parent = "g" + i;
+        }
+
+        assertThat(cacheService.getChildren("tenant1", "root")).hasSize(200);
+        assertThat(cacheService.getChildren("tenant1", "g100")).hasSize(99);
+        assertThat(cacheService.getParents("tenant1", "g199")).hasSize(200);
+        assertThat(cacheService.isUnder("tenant1", "g199", "g0")).isTrue();
+        assertThat(cacheService.isUnder("tenant1", "g0", "g199")).isFalse();
+    }
+
+    @Test
+    void 무작위_변경은_비트맵_캐시와_같은_결과를_낸다() {
+        InMemoryCacheService expected = new InMemoryCacheService();
+        Random random = new Random(7);
+        List<String> ids = new ArrayList<>(List.of("root"));
+
+        for (int i = 0; i < 2_000; i++) {
+            String target = ids.get(random.nextInt(ids.size()));
+            if (random.nextInt(3) > 0 || ids.size() < 2) {
+                String id = "g" + i;
+                cacheService.createGroup("tenant1", target, id);
+                expected.createGroup("tenant1", target, id);
+                ids.add(id);
+                continue;
+            }
+
+            String moved = ids.get(1 + random.nextInt(ids.size() - 1));
+            if (moved.equals(target) || cacheService.isUnder("tenant1", target, moved)) {
+                continue;
+            }
+            cacheService.moveGroup("tenant1", target, moved);
+            expected.moveGroup("tenant1", target, moved);
+        }
+
+        for (String id : ids) {
+            assertThat(cacheService.getChildren("tenant1", id))
+                .containsExactlyInAnyOrderElementsOf(expected.getChildren("tenant1", id));
+            assertThat(cacheService.getParents("tenant1", id))
+                .containsExactlyInAnyOrderElementsOf(expected.getParents("tenant1", id));
+        }
+    }
+
+    @Test
+    void 자기_하위로는_이동할_수_없다() {
+        cacheService.createGroup("tenant1", "root", "a");
+        cacheService.createGroup("tenant1", "a", "b");
+
+        assertThatThrownBy(() -> cacheService.moveGroup("tenant1", "b", "a"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(cacheService.getChildren("tenant1", "root")).containsExactlyInAnyOrder("a", "b");
+    }
+
+    @Test
+    void 커서_그룹이_삭제되거나_밖으로_옮겨져도_다음_페이지를_이어간다() {
+        cacheService.createGroup("tenant1", "top", "other");
+        for (int i = 0; i < 10; i++) {
+            cacheService.createGroup("tenant1", "root", "c" + i);
+        }
+
+        ChildrenPage first = cacheService.getChildren("tenant1", "root", null, 3);
+        assertThat(first.ids()).containsExactly("c0", "c1", "c2");
+
+        cacheService.deleteGroup("tenant1", "c2");
+        ChildrenPage second = cacheService.getChildren("tenant1", "root", first.nextCursor(), 3);
+        assertThat(second.ids()).containsExactly("c3", "c4", "c5");
+
+        cacheService.moveGroup("tenant1", "other", "c5");
+        ChildrenPage third = cacheService.getChildren("tenant1", "root", second.nextCursor(), 3);
+        assertThat(third.ids()).containsExactly("c6", "c7", "c8");
+        assertThat(third.nextCursor()).isEqualTo("c8");
+    }
+}
@@ -0,0 +1,26 @@
+package com.nice1st.Hierarchy_Cache.cache.redis;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class GroupIdRedisSerializerTest {
+
+    GroupIdRedisSerializer serializer = new GroupIdRedisSerializer();
+
+    @Test
+    void 사전_번호는_따옴표_없는_숫자로_쓴다() {
+        assertThat(serializer.serialize("12345")).isEqualTo("12345".getBytes());
+        assertThat(serializer.deserialize("12345".getBytes())).isEqualTo("12345");
+    }
+
+    @Test
+    void 나머지는_JSON_문자열로_쓴다() {
+        // TSID 커서는 Lua 에서 문자열로 비교하므로 숫자로 바꾸지 않는다
+        String tsid = "702839163195195392";
+        for (String value : new String[] {"0", "007", tsid, "tenant1:group", "f28ff6e7-e556-4911-8271-587f6e9a2c8b"}) {
+            assertThat(serializer.serialize(value)).isEqualTo(("\"" + value + "\"").getBytes());
+            assertThat(serializer.deserialize(serializer.serialize(value))).isEqualTo(value);
+        }
+    }
+}
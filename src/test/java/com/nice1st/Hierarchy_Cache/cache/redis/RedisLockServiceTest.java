@@ -0,0 +1,78 @@
+package com.nice1st.Hierarchy_Cache.cache.redis;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import com.nice1st.Hierarchy_Cache.cache.LockService;
+
+@SpringBootTest
+class RedisLockServiceTest {
+
+    @Autowired
+    LockService lockService;
+
+    @Autowired(required = false)
+    RedisTemplate<String, String> redisTemplate;
+
+    final String KEY = "lock-test:group:lock";
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(lockService instanceof RedisLockService);
+        redisTemplate.delete(KEY);
+    }
+
+    @Test
+    void 다른_쓰레드는_락을_해제할_수_없다() {
+        assertThat(lockService.tryLock(KEY, Duration.ofSeconds(5), Duration.ZERO)).isTrue();
+
+        CompletableFuture.runAsync(() -> lockService.unlock(KEY)).join();
+
+        assertThat(redisTemplate.hasKey(KEY)).isTrue();
+        lockService.unlock(KEY);
+        assertThat(redisTemplate.hasKey(KEY)).isFalse();
+    }
+
+    @Test
+    void 해제되면_대기자가_바로_획득한다() throws Exception {
+        assertThat(lockService.tryLock(KEY, Duration.ofSeconds(5), Duration.ZERO)).isTrue();
+
+        CountDownLatch waiting = new CountDownLatch(1);
+        CompletableFuture<Long> acquiredAt = CompletableFuture.supplyAsync(() -> {
+            waiting.countDown();
+            boolean locked = lockService.tryLock(KEY, Duration.ofSeconds(5), Duration.ofSeconds(5));
+            long now = System.nanoTime();
+            lockService.unlock(KEY);
+            return locked ? now : -1;
+        });
+        waiting.await();
+        Thread.sleep(500);
+
+        long releasedAt = System.nanoTime();
+        lockService.unlock(KEY);
+
+        long handOff = TimeUnit.NANOSECONDS.toMillis(acquiredAt.get(5, TimeUnit.SECONDS) - releasedAt);
+        assertThat(handOff).isBetween(0L, 50L);
+    }
+
+    @Test
+    void 보유_중에는_만료되지_않도록_연장한다() throws Exception {
+        assertThat(lockService.tryLock(KEY, Duration.ofMillis(300), Duration.ZERO)).isTrue();
+
+        Thread.sleep(1_000);
+
+        assertThat(redisTemplate.hasKey(KEY)).isTrue();
+        lockService.unlock(KEY);
+    }
+}
@@ -0,0 +1,65 @@
+package com.nice1st.Hierarchy_Cache.cache.redis;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import com.nice1st.Hierarchy_Cache.cache.local.InMemoryCacheService;
+
+class RedisNearCacheServiceTest {
+
+    @SuppressWarnings("unchecked")
+    RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class);
+
+    InMemoryCacheService delegate = spy(new InMemoryCacheService());
+
+    RedisNearCacheService cacheService = new RedisNearCacheService(delegate, redisTemplate, 1_000, Duration.ofMinutes(1));
+
+    @Test
+    void 커서가_그대로면_L2_를_다시_읽지_않는다() {
+        cacheService.createGroup("tenant1", "root", "a");
+        cacheService.getCursor("tenant1");
+
+        cacheService.getChildren("tenant1", "root");
+        cacheService.getChildren("tenant1", "root");
+
+        verify(delegate, times(1)).getChildren("tenant1", "root");
+    }
+
+    @Test
+    void 다른_인스턴스가_커서를_옮기면_L1_을_버린다() {
+        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer();
+        doReturn(serializer).when(redisTemplate).getValueSerializer();
+
+        cacheService.createGroup("tenant1", "root", "a");
+        cacheService.getCursor("tenant1");
+        assertThat(cacheService.getChildren("tenant1", "root")).containsExactly("a");
+
+        // 다른 인스턴스가 b 를 추가하고 커서를 옮긴 상황
+        delegate.createGroup("tenant1", "root", "b");
+        cacheService.onMessage(new DefaultMessage(RedisNearCacheService.CHANNEL.getBytes(),
+          serializer.serialize("tenant1:100")), null);
+
+        assertThat(cacheService.getChildren("tenant1", "root")).containsExactlyInAnyOrder("a", "b");
+    }
+
+    @Test
+    void L1_에_유효한_하위_집합이_있으면_존재_여부를_L2_에_묻지_않는다() {
+        cacheService.createGroup("tenant1", "root", "a");
+        cacheService.getCursor("tenant1");
+        cacheService.getChildren("tenant1", "root");
+
+        assertThat(cacheService.hasCached("tenant1", "root")).isTrue();
+        // 리프는 L1 에 빈 집합만 있으므로 L2 에 묻는다
+        assertThat(cacheService.hasCached("tenant1", "a")).isTrue();
+
+        verify(delegate, never()).hasCached("tenant1", "root");
+        verify(delegate, times(1)).hasCached("tenant1", "a");
+    }
+}
@@ -0,0 +1,60 @@
+package com.nice1st.Hierarchy_Cache.load;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.nice1st.Hierarchy_Cache.config.LoadProperties;
+import com.nice1st.Hierarchy_Cache.repository.HierarchyGroupRepository;
+import com.nice1st.Hierarchy_Cache.service.HierarchyGroupCommandService;
+import com.nice1st.Hierarchy_Cache.service.HierarchyGroupReadService;
+
+@SpringBootTest
+class LoadHarnessTest {
+
+    @Autowired
+    HierarchyGroupRepository repository;
+
+    @Autowired
+    HierarchyGroupReadService readService;
+
+    @Autowired
+    HierarchyGroupCommandService commandService;
+
+    @Test
+    void 합성_테넌트를_만들고_혼합_부하를_건다() throws Exception {
+        // 하네스 빈은 hierarchy.load.enabled 일 때만 등록되므로 직접 만든다
+        SyntheticHierarchyGenerator generator = new SyntheticHierarchyGenerator(commandService);
+        WorkloadRunner workloadRunner = new WorkloadRunner(readService, commandService);
+
+        LoadProperties.Generator generatorProperties = new LoadProperties.Generator();
+        generatorProperties.setTenants(2);
+        generatorProperties.setNodesPerTenant(200);
+        generatorProperties.setMaxDepth(3);
+        generatorProperties.setTenantPrefix("load-test-");
+
+        List<SyntheticTenant> tenants = generator.generate(generatorProperties);
+
+        assertThat(tenants).hasSize(2);
+        for (SyntheticTenant tenant : tenants) {
+            assertThat(repository.countByTenantId(tenant.getTenantId())).isEqualTo(200);
+            // 하위 집합에는 루트 자신이 빠진다
+            assertThat(readService.read(tenant.getRootId())).hasSize(199);
+        }
+
+        LoadProperties.Workload workload = new LoadProperties.Workload();
+        workload.setThreads(4);
+        workload.setDuration(Duration.ofSeconds(2));
+
+        WorkloadReport report = workloadRunner.run(tenants, workload);
+
+        assertThat(report.count(WorkloadReport.Operation.READ)).isPositive();
+        assertThat(report.throughput()).isPositive();
+        assertThat(report.summary()).contains("READ", "p99");
+    }
+}
@@ -0,0 +1,43 @@
+package com.nice1st.Hierarchy_Cache.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import com.nice1st.Hierarchy_Cache.repository.HierarchyGroupRepository;
+
+class HierarchyCachePrewarmerTest {
+
+    HierarchyGroupRepository repository = mock(HierarchyGroupRepository.class);
+
+    HierarchyGroupReadService readService = mock(HierarchyGroupReadService.class);
+
+    TenantTrafficTracker trafficTracker = new TenantTrafficTracker();
+
+    @Test
+    void 최근_읽기가_많은_테넌트부터_정렬한다() {
+        List<String> ordered = HierarchyCachePrewarmer.orderByTraffic(List.of("a", "b", "c"), Map.of("b", 5L, "c", 1L));
+
+        assertThat(ordered).containsExactly("b", "c", "a");
+    }
+
+    @Test
+    void 실패한_테넌트가_있어도_나머지를_모두_처리한다() throws InterruptedException {
+        when(repository.findDistinctTenantIds()).thenReturn(List.of("a", "b", "c"));
+        when(readService.prewarm("b")).thenThrow(new IllegalStateException("boom"));
+        trafficTracker.record("c");
+
+        new HierarchyCachePrewarmer(repository, readService, trafficTracker, 1).prewarm();
+
+        InOrder inOrder = inOrder(readService);
+        inOrder.verify(readService).prewarm("c");
+        inOrder.verify(readService).prewarm("a");
+        inOrder.verify(readService).prewarm("b");
+        assertThat(trafficTracker.drain()).isEmpty();
+    }
+}
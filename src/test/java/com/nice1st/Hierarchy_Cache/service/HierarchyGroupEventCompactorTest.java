@@ -0,0 +1,79 @@
+package com.nice1st.Hierarchy_Cache.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.nice1st.Hierarchy_Cache.domain.HierarchyGroupEvent;
+
+class HierarchyGroupEventCompactorTest {
+
+    HierarchyGroupEventCompactor compactor = new HierarchyGroupEventCompactor();
+
+    long sequence = 0;
+
+    HierarchyGroupEvent event(String targetId, String fromId, String toId) {
+        return HierarchyGroupEvent.builder()
+          .id(++sequence)
+          .tenantId("tenant1")
+          .targetId(targetId)
+          .fromId(fromId)
+          .toId(toId)
+          .build();
+    }
+
+    @Test
+    void 반복_이동은_마지막_이동만_남는다() {
+        List<HierarchyGroupEvent> compacted = compactor.compact(List.of(
+          event("a", "p1", "p2"),
+          event("a", "p2", "p3"),
+          event("a", "p3", "p4")
+        ));
+
+        assertThat(compacted).hasSize(1);
+        HierarchyGroupEvent event = compacted.getFirst();
+        assertThat(event.getType()).isEqualTo(HierarchyGroupEvent.EventType.UPDATE);
+        assertThat(event.getFromId()).isEqualTo("p1");
+        assertThat(event.getToId()).isEqualTo("p4");
+        assertThat(event.getId()).isEqualTo(3L);
+    }
+
+    @Test
+    void 생성_후_이동은_최종_부모로_생성된다() {
+        List<HierarchyGroupEvent> compacted = compactor.compact(List.of(
+          event("a", null, "p1"),
+          event("a", "p1", "p2")
+        ));
+
+        assertThat(compacted).hasSize(1);
+        assertThat(compacted.getFirst().getType()).isEqualTo(HierarchyGroupEvent.EventType.CREATE);
+        assertThat(compacted.getFirst().getToId()).isEqualTo("p2");
+    }
+
+    @Test
+    void 생성_후_삭제는_삭제만_남는다() {
+        List<HierarchyGroupEvent> compacted = compactor.compact(List.of(
+          event("a", null, "p1"),
+          event("a", "p1", "p2"),
+          event("a", "p2", null)
+        ));
+
+        assertThat(compacted).hasSize(1);
+        assertThat(compacted.getFirst().getType()).isEqualTo(HierarchyGroupEvent.EventType.DELETE);
+    }
+
+    @Test
+    void 같은_batch_에서_생성된_부모가_먼저_적용된다() {
+        List<HierarchyGroupEvent> compacted = compactor.compact(List.of(
+          event("parent", null, "root"),
+          event("child", null, "parent"),
+          event("parent", "root", "other")
+        ));
+
+        assertThat(compacted).extracting(HierarchyGroupEvent::getTargetId).containsExactly("parent", "child");
+        assertThat(compacted.getFirst().getType()).isEqualTo(HierarchyGroupEvent.EventType.CREATE);
+        assertThat(compacted.getFirst().getToId()).isEqualTo("other");
+    }
+}
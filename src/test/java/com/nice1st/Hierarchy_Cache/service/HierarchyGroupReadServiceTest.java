@@ -1,13 +1,24 @@
 package com.nice1st.Hierarchy_Cache.service;
 
 import com.nice1st.Hierarchy_Cache.cache.CacheService;
+import com.nice1st.Hierarchy_Cache.cache.ChildrenPage;
+import com.nice1st.Hierarchy_Cache.cache.InvalidCursorException;
+import com.nice1st.Hierarchy_Cache.cache.SetOperation;
+import com.nice1st.Hierarchy_Cache.config.HierarchyCacheProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @SpringBootTest
 class HierarchyGroupReadServiceTest {
@@ -18,6 +29,12 @@ class HierarchyGroupReadServiceTest {
     @Autowired
     CacheService cacheService;
 
+    @Autowired
+    HierarchyCacheProperties properties;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
     final String ROOT_ID = "e1757bb8-8568-4135-8e67-778361b3329d";
 
     void assertion(Set<String> ids) {
@@ -31,6 +48,136 @@ class HierarchyGroupReadServiceTest {
         assertion(ids);
     }
 
+    @Test
+    void recursiveIdsWithoutRecursiveQuery() {
+        properties.getFallback().setRecursiveQuery(false);
+        try {
+            Set<String> ids = hierarchyGroupReadService.recursiveIds(ROOT_ID);
+            assertThat(ids).isEqualTo(hierarchyGroupReadService.reBuild(ROOT_ID));
+        } finally {
+            properties.getFallback().setRecursiveQuery(true);
+        }
+    }
+
+    @Test
+    void ancestorIds() {
+        String depth3Id = "2591d205-2f62-43d4-8b1a-a6c10289a9b6";
+
+        Set<String> ids = hierarchyGroupReadService.ancestorIds(depth3Id);
+        assertThat(ids).hasSize(3).doesNotContain(depth3Id);
+        assertThat(ids.stream().toList().getLast()).isEqualTo(ROOT_ID);
+
+        properties.getFallback().setRecursiveQuery(false);
+        try {
+            assertThat(hierarchyGroupReadService.ancestorIds(depth3Id)).containsExactlyElementsOf(ids);
+        } finally {
+            properties.getFallback().setRecursiveQuery(true);
+        }
+        assertThat(hierarchyGroupReadService.readAncestors(depth3Id)).contains(ROOT_ID);
+    }
+
+    @Test
+    void recursiveIdsWithinDepth() {
+        Set<String> ids = hierarchyGroupReadService.recursiveIds(ROOT_ID, 1);
+        assertThat(ids).contains(ROOT_ID, "f28ff6e7-e556-4911-8271-587f6e9a2c8b")
+          .doesNotContain("9b6067dd-9dbd-438a-bf73-0ae149b02e19");
+
+        properties.getFallback().setRecursiveQuery(false);
+        try {
+            assertThat(hierarchyGroupReadService.recursiveIds(ROOT_ID, 1)).isEqualTo(ids);
+        } finally {
+            properties.getFallback().setRecursiveQuery(true);
+        }
+    }
+
+    @Test
+    void readPath() {
+        String depth3Id = "2591d205-2f62-43d4-8b1a-a6c10289a9b6";
+
+        List<String> path = hierarchyGroupReadService.readPath(depth3Id);
+        assertThat(path).hasSize(4);
+        assertThat(path.getFirst()).isEqualTo(ROOT_ID);
+        assertThat(path.getLast()).isEqualTo(depth3Id);
+    }
+
+    @Test
+    void readStats() {
+        long count = hierarchyGroupReadService.countByTenantId("tenant1");
+
+        assertThat(hierarchyGroupReadService.readSubtreeStats(ROOT_ID).descendants()).isEqualTo(count - 1);
+        assertThat(hierarchyGroupReadService.readStats("tenant1").groups()).isEqualTo(count);
+        assertThatThrownBy(() -> hierarchyGroupReadService.readStats("missing"))
+          .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void combine() {
+        String depth1Id = "f28ff6e7-e556-4911-8271-587f6e9a2c8b";
+        String depth1Id2 = "ef9ae61b-eb88-473f-8c3b-3f7b5b2afa8e";
+
+        Set<String> union = hierarchyGroupReadService.combine(List.of(depth1Id, depth1Id2), SetOperation.UNION);
+
+        Set<String> expected = new HashSet<>(hierarchyGroupReadService.read(depth1Id));
+        expected.addAll(hierarchyGroupReadService.read(depth1Id2));
+        assertThat(union).isEqualTo(expected);
+        assertThat(hierarchyGroupReadService.combine(List.of(), SetOperation.UNION)).isEmpty();
+    }
+
+    @Test
+    void 폴백_페이지는_id_순_keyset_으로_나눈다() {
+        Set<String> ids = Set.of("d", "a", "e", "c", "b");
+
+        ChildrenPage first = HierarchyGroupReadService.page(ids, null, 2);
+        assertThat(first.ids()).containsExactly("a", "b");
+        ChildrenPage second = HierarchyGroupReadService.page(ids, first.nextCursor(), 2);
+        assertThat(second.ids()).containsExactly("c", "d");
+        ChildrenPage last = HierarchyGroupReadService.page(ids, second.nextCursor(), 2);
+        assertThat(last.ids()).containsExactly("e");
+        assertThat(last.nextCursor()).isNull();
+    }
+
+    @Test
+    void 캐시_커서로_끝까지_이어_읽는다() {
+        Set<String> expected = hierarchyGroupReadService.read(ROOT_ID);
+
+        Set<String> ids = new HashSet<>();
+        String cursor = null;
+        do {
+            ChildrenPage page = hierarchyGroupReadService.readPage(ROOT_ID, cursor, 3_000);
+            assertThat(page.ids()).hasSizeLessThanOrEqualTo(3_000);
+            ids.addAll(page.ids());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(ids).isEqualTo(expected);
+    }
+
+    @Test
+    void DB_커서는_DB_에서_id_순으로_이어_읽는다() {
+        Set<String> expected = hierarchyGroupReadService.read(ROOT_ID);
+
+        List<String> ids = new ArrayList<>();
+        String cursor = new PageCursor(PageCursor.DB, "").encode();
+        while (cursor != null) {
+            ChildrenPage page = hierarchyGroupReadService.readPage(ROOT_ID, cursor, 7_000);
+            ids.addAll(page.ids());
+            cursor = page.nextCursor();
+        }
+
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+        assertThat(new HashSet<>(ids)).isEqualTo(expected);
+    }
+
+    @Test
+    void 다른_저장소의_커서나_잘못된_커서는_거절한다() {
+        String foreign = new PageCursor("other", "0").encode();
+
+        assertThatThrownBy(() -> hierarchyGroupReadService.readPage(ROOT_ID, foreign, 10))
+          .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> hierarchyGroupReadService.readPage(ROOT_ID, "not a cursor!", 10))
+          .isInstanceOf(InvalidCursorException.class);
+    }
+
     @Test
     void reBuild() {
         Set<String> ids = hierarchyGroupReadService.reBuild(ROOT_ID);
@@ -39,9 +186,23 @@ class HierarchyGroupReadServiceTest {
 
     @Test
     void cache() {
-        Set<String> ids = hierarchyGroupReadService.read(ROOT_ID);
+        Set<String> ids = new HashSet<>(hierarchyGroupReadService.read(ROOT_ID));
         ids.add(ROOT_ID);
 
         assertion(ids);
     }
+
+    @Test
+    void 읽기마다_테넌트별_지표를_남긴다() {
+        hierarchyGroupReadService.read(ROOT_ID);
+
+        Timer read = meterRegistry.find("hierarchy.cache.read").tag("tenant", "tenant1").timer();
+        assertThat(read).isNotNull();
+        assertThat(read.count()).isPositive();
+
+        DistributionSummary calls = meterRegistry.find("hierarchy.cache.service.calls.per.read").tag("tenant", "tenant1")
+          .summary();
+        assertThat(calls).isNotNull();
+        assertThat(calls.max()).isPositive();
+    }
 }